@@ -17,16 +17,14 @@ package org.eiichiro.bootleg;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import javax.servlet.ServletContext;
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
@@ -59,6 +57,17 @@ public abstract class AbstractRequest implements Request {
 	/** Web context. */
 	protected WebContext context;
 	
+	// Indexes of the indexed names in each source, built on demand.
+	private Index parameters;
+	
+	private Index headers;
+	
+	private Index sessionAttributes;
+	
+	private Index applicationAttributes;
+	
+	private Cookies cookies;
+	
 	/**
 	 * Constructs this HTTP request from the specified Web context.
 	 * 
@@ -67,6 +76,29 @@ public abstract class AbstractRequest implements Request {
 	public void from(WebContext context) {
 		this.context = context;
 	}
+	
+	/**
+	 * Returns the metadata of the specified type attached to the Web endpoint 
+	 * method of the current HTTP request. The metadata is computed with the 
+	 * specified function once per Web endpoint method and cached in its 
+	 * compiled metadata. If the Web endpoint method has not been determined, 
+	 * the metadata is computed from <code>null</code> on every invocation.
+	 * 
+	 * @param <T> The type of the metadata.
+	 * @param type The type of the metadata.
+	 * @param function The function to compute the metadata from the Web 
+	 * endpoint method.
+	 * @return The metadata attached to the Web endpoint method.
+	 */
+	protected <T> T attachment(Class<T> type, Function<Method, ? extends T> function) {
+		Method method = (context == null) ? null : context.method();
+		
+		if (method == null) {
+			return function.apply(null);
+		}
+		
+		return EndpointDescriptor.of(method).attachment(type, function);
+	}
 
 	/**
 	 * Constructs Web endpoint parameter from the specified source list or type.
@@ -97,14 +129,31 @@ public abstract class AbstractRequest implements Request {
 	 * @return Web endpoint method parameter.
 	 */
 	public Object get(Type type, List<Annotation> sources) {
-		if (Types.isArray(type)) {
+		return get(new Binding.Parameter(type, sources));
+	}
+	
+	/**
+	 * Constructs Web endpoint parameter from the specified binding plan.
+	 * The type category of the parameter has been classified in the plan; see 
+	 * {@link #get(Type, List)} for the construction steps.
+	 * 
+	 * @param binding The binding plan of Web endpoint parameter.
+	 * @return Web endpoint method parameter.
+	 */
+	Object get(Binding.Parameter binding) {
+		Type type = binding.type;
+		
+		if (binding.category == Binding.Category.ARRAY) {
 			logger.warn("Array type is not supported in [" + getClass() + "]");
 			return null;
-		} else if (Types.isBuiltinType(type)) {
+		} else if (binding.category == Binding.Category.BUILTIN) {
 			return builtin(type);
 		}
 		
-		for (Annotation source : sources) {
+		List<Annotation> sources = binding.sources;
+		
+		for (int i = 0; i < sources.size(); i++) {
+			Annotation source = sources.get(i);
 			Object parameter = null;
 			
 			if (source instanceof Query) {
@@ -137,26 +186,30 @@ public abstract class AbstractRequest implements Request {
 			}
 		}
 		
-		if (Types.isPrimitive(type)) {
+		switch (binding.category) {
+		case PRIMITIVE:
 			logger.debug("Cannot construct [" + type + "] primitive; Returns the default value");
 			return primitive(type);
-		} else if (Types.isCollection(type)) {
-			if (Types.isSupportedCollection(type)) {
-				logger.debug("Cannot construct [" + type + "] collection; Returns the empty colleciton");
-				return Types.getEmptyCollection(type);
-			} else {
-				logger.warn("Collection type " + type + " is not supported in [" + getClass() + "]");
-				return null;
-			}
+		case SUPPORTED_COLLECTION:
+			logger.debug("Cannot construct [" + type + "] collection; Returns the empty colleciton");
+			return Types.getEmptyCollection(type);
+		case UNSUPPORTED_COLLECTION:
+			logger.warn("Collection type " + type + " is not supported in [" + getClass() + "]");
+			return null;
+		default:
+			break;
 		}
 		
-		StringBuilder builder = new StringBuilder();
-		
-		for (Annotation source : sources) {
-			builder.append(source + " ");
+		if (logger.isDebugEnabled()) {
+			StringBuilder builder = new StringBuilder();
+			
+			for (Annotation source : sources) {
+				builder.append(source + " ");
+			}
+			
+			logger.debug("Cannot construct Web endpoint method parameter [" + builder + type + "]");
 		}
 		
-		logger.debug("Cannot construct Web endpoint method parameter [" + builder + type + "]");
 		return null;
 	}
 	
@@ -353,7 +406,8 @@ public abstract class AbstractRequest implements Request {
 				if (object == null) {
 					logger.debug("Value named [" + name + "] not found");
 				} else {
-					Object convert = convert(object, rawType);
+					Object convert = (ClassUtils.primitiveToWrapper(rawType).isInstance(object)) 
+							? object : convert(object, rawType);
 					
 					if (convert != null 
 							&& ClassUtils.primitiveToWrapper(rawType).isAssignableFrom(convert.getClass())) {
@@ -412,14 +466,14 @@ public abstract class AbstractRequest implements Request {
 				Class<?> rawType = Types.getRawType(type);
 				
 				try {
-					Object instance = rawType.newInstance();
+					Binder binder = Binder.of(rawType);
+					Object instance = binder.newInstance();
 					
-					for (Field field : rawType.getDeclaredFields()) {
-						Object object = parameter(field.getGenericType(), field.getName(), value, values);
+					for (Binder.Property property : binder.properties()) {
+						Object object = parameter(property.type(), property.name(), value, values);
 						
 						if (object != null) {
-							field.setAccessible(true);
-							field.set(instance, object);
+							property.set(instance, object);
 						}
 					}
 					
@@ -435,7 +489,9 @@ public abstract class AbstractRequest implements Request {
 	
 	/**
 	 * Converts the specified object to the specified type.
-	 * This method is overridable. You can provide your own conversion to the 
+	 * The string is parsed to the primitive (or its wrapper) type without 
+	 * {@code ConvertUtils} unless the standard converter for the type has been 
+	 * replaced. This method is overridable. You can provide your own conversion to the 
 	 * parameter construction by overriding this method.
 	 * 
 	 * @param object The object to be converted
@@ -443,6 +499,21 @@ public abstract class AbstractRequest implements Request {
 	 * @return The converted object.
 	 */
 	protected Object convert(Object object, Class<?> type) {
+		if (object instanceof String) {
+			Parser parser = Types.getParser(type);
+			
+			if (parser != null) {
+				Object value = parser.parse((String) object);
+				
+				if (value == Parser.INVALID) {
+					logger.debug("Cannot convert [" + object + "] to [" + type + "]; Returns the default value");
+					return parser.defaultValue;
+				} else if (value != Parser.UNPARSED) {
+					return value;
+				}
+			}
+		}
+		
 		try {
 			return ConvertUtils.convert(object, type);
 		} catch (Exception e) {
@@ -464,20 +535,27 @@ public abstract class AbstractRequest implements Request {
 		if (type.isAssignableFrom(object.getClass())) {
 			return object;
 		} else if (object instanceof String) {
-			try {
-				Constructor<?> constructor = type.getConstructor(String.class);
-				return constructor.newInstance(object);
-			} catch (Exception e) {
-				logger.debug("Cannot invoke [public " + type.getName() 
-						+ "(String.class)] constrcutor on [" + type + "]", e);
+			Constructor<?> constructor = Types.getStringConstructor(type);
+			
+			if (constructor != null) {
+				try {
+					return constructor.newInstance(object);
+				} catch (Exception e) {
+					logger.debug("Cannot invoke [public " + type.getName() 
+							+ "(String.class)] constrcutor on [" + type + "]", e);
+				}
 			}
 			
-			try {
-				return type.getMethod("valueOf", String.class).invoke(null, object);
-			} catch (Exception e1) {
-				logger.debug("Cannot invoke [public static " 
-						+ type.getName() + ".valueOf(String.class)]" 
-						+ "method on [" + type + "]", e1);
+			Method valueOf = Types.getValueOfMethod(type);
+			
+			if (valueOf != null) {
+				try {
+					return valueOf.invoke(null, object);
+				} catch (Exception e1) {
+					logger.debug("Cannot invoke [public static " 
+							+ type.getName() + ".valueOf(String.class)]" 
+							+ "method on [" + type + "]", e1);
+				}
 			}
 			
 		} else {
@@ -488,6 +566,46 @@ public abstract class AbstractRequest implements Request {
 		return null;
 	}
 	
+	/**
+	 * Returns the index of the HTTP request parameter names (shared by the 
+	 * query string and the posted form).
+	 * 
+	 * @return The index of the HTTP request parameter names.
+	 */
+	Index parameters() {
+		if (parameters == null) {
+			parameters = new Index(context.request().getParameterNames());
+		}
+		
+		return parameters;
+	}
+	
+	/**
+	 * Returns the values of the indexed names for the specified collection 
+	 * parameter name in the order of the index.
+	 * 
+	 * @param index The index of the source.
+	 * @param name The collection parameter name.
+	 * @param value The {@code Function} that returns the value corresponding 
+	 * to the indexed name from the source.
+	 * @return The values or <code>null</code> if no indexed name is found.
+	 */
+	static Collection<Object> values(Index index, String name, Function<String, Object> value) {
+		List<String> names = index.get(name);
+		
+		if (names.isEmpty()) {
+			return null;
+		}
+		
+		List<Object> values = new ArrayList<Object>(names.size());
+		
+		for (String n : names) {
+			values.add(value.apply(n));
+		}
+		
+		return values;
+	}
+	
 	/**
 	 * Returns the Web endpoint method parameter from query string.
 	 * 
@@ -497,28 +615,17 @@ public abstract class AbstractRequest implements Request {
 	 * string.
 	 */
 	protected Object query(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
 				return context.request().getParameter(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
-			@SuppressWarnings("unchecked")
 			public Collection<Object> apply(String name) {
-				HttpServletRequest request = context.request();
-				Map<String, Object> map = new TreeMap<String, Object>();
-				
-				for (Object object : Collections.list(request.getParameterNames())) {
-					String key = (String) object;
-					
-					if (key.startsWith(name + "[")) {
-						map.put(key, request.getParameter(key));
-					}
-				}
-				
-				return (map.isEmpty()) ? null : map.values();
+				return values(parameters(), name, value);
 			}
 			
 		});
@@ -532,28 +639,21 @@ public abstract class AbstractRequest implements Request {
 	 * @return The Web endpoint method parameter from the HTTP request header.
 	 */
 	protected Object header(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
 				return context.request().getHeader(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
-			@SuppressWarnings("unchecked")
 			public Collection<Object> apply(String name) {
-				HttpServletRequest request = context.request();
-				Map<String, Object> map = new TreeMap<String, Object>();
-				
-				for (Object object : Collections.list(request.getHeaderNames())) {
-					String key = (String) object;
-					
-					if (key.startsWith(name + "[")) {
-						map.put(key, request.getHeader(key));
-					}
+				if (headers == null) {
+					headers = new Index(context.request().getHeaderNames());
 				}
 				
-				return (map.isEmpty()) ? null : map.values();
+				return values(headers, name, value);
 			}
 			
 		});
@@ -567,81 +667,69 @@ public abstract class AbstractRequest implements Request {
 	 * @return The Web endpoint method parameter from cookie in the HTTP request.
 	 */
 	protected Object cookie(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
-				Cookie[] cookies = context.request().getCookies();
-				
-				if (cookies != null) {
-					for (Cookie cookie : cookies) {
-						if (cookie.getName().equals(name)) {
-							return cookie.getValue();
-						}
-					}
-				}
-				
-				return null;
+				return cookies().get(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
 			public Collection<Object> apply(String name) {
-				HttpServletRequest request = context.request();
-				Map<String, Object> map = new TreeMap<String, Object>();
-				Cookie[] cookies = request.getCookies();
-				
-				if (cookies != null) {
-					for (Cookie cookie : cookies) {
-						String key = cookie.getName();
-						
-						if (key.startsWith(name + "[")) {
-							map.put(key, cookie.getValue());
-						}
-					}
-				}
-				
-				return (map.isEmpty()) ? null : map.values();
+				return values(cookies().index(), name, value);
 			}
 			
 		});
 	}
 	
+	private Cookies cookies() {
+		if (cookies == null) {
+			cookies = new Cookies(context.request());
+		}
+		
+		return cookies;
+	}
+	
 	/**
 	 * Returns the Web endpoint method parameter from HTTP session.
+	 * This method does not create the session; if the current request has no 
+	 * session, the parameter is not found on the session.
 	 * 
 	 * @param type The parameter type.
 	 * @param name The parameter name.
 	 * @return The Web endpoint method parameter from HTTP session.
 	 */
 	protected Object session(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
-				return context.session().getAttribute(name);
+				HttpSession session = context.session(false);
+				return (session == null) ? null : session.getAttribute(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
 			@SuppressWarnings("unchecked")
 			public Collection<Object> apply(String name) {
-				HttpSession session = context.session();
+				HttpSession session = context.session(false);
+				
+				if (session == null) {
+					return null;
+				}
+				
 				Object attribute = session.getAttribute(name);
 				
 				if (attribute instanceof Collection<?>) {
 					return (Collection<Object>) attribute;
 				}
 				
-				Map<String, Object> map = new TreeMap<String, Object>();
-				
-				for (Object object : Collections.list(session.getAttributeNames())) {
-					String key = (String) object;
-					
-					if (key.startsWith(name + "[")) {
-						map.put(key, session.getAttribute(key));
-					}
+				if (sessionAttributes == null) {
+					sessionAttributes = new Index(session.getAttributeNames());
 				}
 				
-				return (map.isEmpty()) ? null : map.values();
+				return values(sessionAttributes, name, value);
 			}
 			
 		});
@@ -657,13 +745,14 @@ public abstract class AbstractRequest implements Request {
 	 * ({@code ServletContext}).
 	 */
 	protected Object application(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
 				return context.application().getAttribute(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
 			@SuppressWarnings("unchecked")
 			public Collection<Object> apply(String name) {
@@ -674,31 +763,36 @@ public abstract class AbstractRequest implements Request {
 					return (Collection<Object>) attribute;
 				}
 				
-				Map<String, Object> map = new TreeMap<String, Object>();
-				
-				for (Object object : Collections.list(servletContext.getAttributeNames())) {
-					String key = (String) object;
-					
-					if (key.startsWith(name + "[")) {
-						map.put(key, servletContext.getAttribute(key));
-					}
+				if (applicationAttributes == null) {
+					applicationAttributes = new Index(servletContext.getAttributeNames());
 				}
 				
-				return (map.isEmpty()) ? null : map.values();
+				return values(applicationAttributes, name, value);
 			}
 			
 		});
 	}
 	
-	protected Object path(Type type, String name) {
+	protected Object path(final Type type, String name) {
 		return parameter(type, name, new Function<String, Object>() {
 
 			@SuppressWarnings("unchecked")
 			public Object apply(String name) {
-				Map<String, String> variables = (Map<String, String>) context.request().getAttribute(PATH);
+				Object variables = context.request().getAttribute(PATH);
 				
-				if (variables != null) {
-					return variables.get(name);
+				if (variables instanceof URITemplate.Match) {
+					// Typed path variable is converted once when it is matched; 
+					// it is passed as is only if it is an instance of the 
+					// parameter type, otherwise the raw path segment is parsed 
+					// for the parameter type (e.g. '{id:int}' to 'long').
+					URITemplate.Match match = (URITemplate.Match) variables;
+					Object value = match.value(name);
+					Class<?> rawType = Types.getRawType(type);
+					return (value != null && rawType != null 
+							&& ClassUtils.primitiveToWrapper(rawType).isInstance(value)) 
+							? value : match.get(name);
+				} else if (variables != null) {
+					return ((Map<String, String>) variables).get(name);
 				}
 				
 				return null;
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eiichiro.reverb.lang.UncheckedException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@code Binder} constructs user-defined object instance and sets its fields 
+ * in the parameter construction.
+ * The default constructor and the instance fields of the user-defined object 
+ * type are resolved into {@code MethodHandle}s once per type, so binding the 
+ * object does not look up the declared fields nor check the accessibility of 
+ * them on every request.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public final class Binder {
+
+	private static final ClassValue<Binder> binders = new ClassValue<Binder>() {
+
+		@Override
+		protected Binder computeValue(Class<?> type) {
+			return new Binder(type);
+		}
+		
+	};
+	
+	private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+	
+	private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private final Class<?> type;
+	
+	private final MethodHandle constructor;
+	
+	private final List<Property> properties;
+	
+	private final Map<String, Integer> indexes;
+	
+	private Binder(Class<?> type) {
+		this.type = type;
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle constructor = null;
+		
+		try {
+			Constructor<?> c = type.getDeclaredConstructor();
+			
+			if (!Modifier.isAbstract(type.getModifiers())) {
+				c.setAccessible(true);
+				constructor = lookup.unreflectConstructor(c).asType(CONSTRUCTOR);
+			}
+		} catch (Exception e) {}
+		
+		this.constructor = constructor;
+		List<Property> properties = new ArrayList<Property>();
+		Map<String, Integer> indexes = new HashMap<String, Integer>();
+		
+		for (Field field : type.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+				continue;
+			}
+			
+			field.setAccessible(true);
+			MethodHandle setter = null;
+			
+			if (!Modifier.isFinal(field.getModifiers())) {
+				try {
+					setter = lookup.unreflectSetter(field).asType(SETTER);
+				} catch (IllegalAccessException e) {}
+			}
+			
+			indexes.put(field.getName(), properties.size());
+			properties.add(new Property(field, setter));
+		}
+		
+		this.properties = Collections.unmodifiableList(properties);
+		this.indexes = indexes;
+	}
+	
+	/**
+	 * Returns the {@code Binder} of the specified user-defined object type.
+	 * 
+	 * @param type The user-defined object type.
+	 * @return The {@code Binder} of the specified type.
+	 */
+	public static Binder of(Class<?> type) {
+		Preconditions.checkArgument(type != null, 
+				"Parameter 'type' must not be [" + type + "]");
+		return binders.get(type);
+	}
+	
+	/**
+	 * Instantiates the user-defined object type with its default constructor.
+	 * 
+	 * @return The new instance of the user-defined object type.
+	 * @throws Exception If the user-defined object type does not have the 
+	 * default constructor or the constructor throws any exception.
+	 */
+	public Object newInstance() throws Exception {
+		if (constructor == null) {
+			throw new InstantiationException("[" + type 
+					+ "] cannot be instantiated with the default constructor");
+		}
+		
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UncheckedException(t);
+		}
+	}
+	
+	/**
+	 * Returns the instance fields of the user-defined object type.
+	 * 
+	 * @return The instance fields of the user-defined object type.
+	 */
+	public List<Property> properties() {
+		return properties;
+	}
+	
+	/**
+	 * Returns the index of the instance field of the specified name in 
+	 * {@link #properties()}.
+	 * 
+	 * @param name The name of the instance field.
+	 * @return The index of the instance field or <code>-1</code> if the 
+	 * user-defined object type does not declare it.
+	 */
+	public int indexOf(String name) {
+		Integer index = indexes.get(name);
+		return (index == null) ? -1 : index;
+	}
+	
+	/** Instance field of user-defined object type. */
+	public static final class Property {
+		
+		private final Field field;
+		
+		private final Type type;
+		
+		private final MethodHandle setter;
+		
+		private Property(Field field, MethodHandle setter) {
+			this.field = field;
+			this.type = field.getGenericType();
+			this.setter = setter;
+		}
+		
+		/**
+		 * Returns the field name.
+		 * 
+		 * @return The field name.
+		 */
+		public String name() {
+			return field.getName();
+		}
+		
+		/**
+		 * Returns the generic type of the field.
+		 * 
+		 * @return The generic type of the field.
+		 */
+		public Type type() {
+			return type;
+		}
+		
+		/**
+		 * Sets the specified value to the field of the specified instance.
+		 * 
+		 * @param instance The user-defined object instance.
+		 * @param value The value to be set.
+		 * @throws Exception If the value cannot be set to the field.
+		 */
+		public void set(Object instance, Object value) throws Exception {
+			if (setter == null) {
+				// Final field.
+				field.set(instance, value);
+				return;
+			}
+			
+			try {
+				setter.invokeExact(instance, value);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new UncheckedException(t);
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eiichiro.bootleg.annotation.Source;
+
+/**
+ * Parameter binding plan of Web endpoint method.
+ * The plan is built once per Web endpoint method by {@link Receive} and 
+ * holds the generic type, the source annotations (in the declared order) and 
+ * the type category of each parameter, so the parameters are constructed 
+ * without querying the method's annotations and types (both of them clone 
+ * arrays) or classifying the parameter types on every request.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Binding {
+
+	/** Type category of Web endpoint method parameter. */
+	enum Category {
+		
+		/** Array type (unsupported). */
+		ARRAY, 
+		
+		/** Built-in type (See {@link Types#isBuiltinType(Type)}). */
+		BUILTIN, 
+		
+		/** Primitive type; defaults to the default value of the type. */
+		PRIMITIVE, 
+		
+		/** Supported collection type; defaults to the empty collection. */
+		SUPPORTED_COLLECTION, 
+		
+		/** Unsupported collection type. */
+		UNSUPPORTED_COLLECTION, 
+		
+		/** Any other type; defaults to <code>null</code>. */
+		OTHER
+		
+	}
+	
+	private final Parameter[] parameters;
+	
+	/**
+	 * Builds the parameter binding plan of the specified Web endpoint method.
+	 * 
+	 * @param method Web endpoint method.
+	 */
+	Binding(Method method) {
+		Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+		Type[] parameterTypes = method.getGenericParameterTypes();
+		parameters = new Parameter[parameterTypes.length];
+		
+		for (int i = 0; i < parameterTypes.length; i++) {
+			List<Annotation> sources = new ArrayList<Annotation>();
+			
+			for (Annotation annotation : parameterAnnotations[i]) {
+				if (annotation.annotationType().isAnnotationPresent(Source.class)) {
+					sources.add(annotation);
+				}
+			}
+			
+			parameters[i] = new Parameter(parameterTypes[i], sources);
+		}
+	}
+	
+	/**
+	 * Returns the number of the parameters.
+	 * 
+	 * @return The number of the parameters.
+	 */
+	int size() {
+		return parameters.length;
+	}
+	
+	/**
+	 * Returns the binding plan of the parameter at the specified index.
+	 * 
+	 * @param index The index of the parameter.
+	 * @return The binding plan of the parameter.
+	 */
+	Parameter get(int index) {
+		return parameters[index];
+	}
+	
+	/** Binding plan of Web endpoint method parameter. */
+	static final class Parameter {
+		
+		final Type type;
+		
+		final List<Annotation> sources;
+		
+		final Category category;
+		
+		/**
+		 * Classifies the specified parameter type.
+		 * 
+		 * @param type The parameter type.
+		 * @param sources The source annotations of the parameter.
+		 */
+		Parameter(Type type, List<Annotation> sources) {
+			this.type = type;
+			this.sources = (sources.isEmpty()) ? Collections.<Annotation>emptyList() 
+					: Collections.unmodifiableList(new ArrayList<Annotation>(sources));
+			
+			if (Types.isArray(type)) {
+				category = Category.ARRAY;
+			} else if (Types.isBuiltinType(type)) {
+				category = Category.BUILTIN;
+			} else if (Types.isPrimitive(type)) {
+				category = Category.PRIMITIVE;
+			} else if (Types.isCollection(type)) {
+				category = (Types.isSupportedCollection(type)) 
+						? Category.SUPPORTED_COLLECTION : Category.UNSUPPORTED_COLLECTION;
+			} else {
+				category = Category.OTHER;
+			}
+		}
+		
+	}
+	
+}
@@ -16,6 +16,17 @@
 package org.eiichiro.bootleg;
 
 import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.stream.BaseStream;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -27,6 +38,7 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eiichiro.bootleg.json.JSONWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,11 +65,31 @@ public class BootlegFilter implements Filter {
 	/** Servlet context parameter key to get custom {@code Configuration} class. */
 	public static final String CONFIGURATION = "org.eiichiro.bootleg.configuration";
 	
+	/**
+	 * Servlet context parameter key to enable the asynchronous pipeline 
+	 * (<code>true</code> or <code>false</code>).
+	 */
+	public static final String ASYNC = "org.eiichiro.bootleg.async";
+	
+	private static final String SUSPENDED = "org.eiichiro.bootleg.suspended";
+	
 	private static Logger logger = LoggerFactory.getLogger(BootlegFilter.class);
 	
 	private Configuration configuration;
 	
-	private Pipeline<WebContext> pipeline;
+	private ServletContext application;
+	
+	private Pipeline.Compiled<WebContext> pipeline;
+	
+	private boolean async;
+	
+	// Servlet 3.0 asynchronous processing methods resolved from the interface 
+	// types; null on the Servlet container that does not support it.
+	private Method isAsyncSupported;
+	
+	private Method startAsync;
+	
+	private Method complete;
 	
 	static {
 		Logger logger = LoggerFactory.getLogger(Version.class);
@@ -70,6 +102,8 @@ public class BootlegFilter implements Filter {
 	 * Constructs the {@code Configuration} and sets up the HTTP request processing 
 	 * pipeline. If the custom configuration class has not been specified, 
 	 * {@link DefaultConfiguration} is used by default.
+	 * The JSON writers for the result types of the Web endpoint methods that 
+	 * generate JSON are generated in advance (see {@link JSONWriter}).
 	 * 
 	 * @param filterConfig Servlet filter configuration.
 	 */
@@ -95,11 +129,101 @@ public class BootlegFilter implements Filter {
 		}
 		
 		this.configuration = configuration;
-		this.pipeline = pipeline;
+		this.application = filterConfig.getServletContext();
+		this.pipeline = pipeline.compile();
+		this.async = Boolean.parseBoolean(filterConfig.getServletContext().getInitParameter(ASYNC));
+		
+		if (!async && configuration.executor() != null) {
+			logger.warn("Executor [" + configuration.executor() + "] is ignored: "
+					+ "Web endpoint methods are invoked on it only in the asynchronous pipeline ["
+					+ ASYNC + "=true]");
+		}
+		
+		if (async) {
+			logger.info("Asynchronous HTTP request processing pipeline enabled");
+			
+			try {
+				isAsyncSupported = ServletRequest.class.getMethod("isAsyncSupported");
+				startAsync = ServletRequest.class.getMethod("startAsync");
+				complete = Class.forName("javax.servlet.AsyncContext", false, 
+						ServletRequest.class.getClassLoader()).getMethod("complete");
+			} catch (Exception e) {
+				isAsyncSupported = null;
+				startAsync = null;
+				complete = null;
+				logger.info("Servlet container does not support asynchronous processing; "
+						+ "The container thread waits for the completion of the pipeline");
+			}
+		}
+		
+		generate(configuration);
+	}
+	
+	// Generates the JSON writers for the result types of the Web endpoint 
+	// methods annotated with @Generates('application/json' or 
+	// 'application/x-ndjson').
+	private void generate(Configuration configuration) {
+		try {
+			int count = 0;
+			
+			for (Class<?> endpoint : configuration.endpoints()) {
+				for (Method method : endpoint.getMethods()) {
+					if (method.getDeclaringClass() == Object.class) {
+						continue;
+					}
+					
+					String generates = EndpointDescriptor.of(method).generates();
+					
+					if (MediaType.APPLICATION_JSON.equals(generates) 
+							|| MediaType.APPLICATION_NDJSON.equals(generates)) {
+						Class<?> type = Types.getRawType(element(method.getGenericReturnType()));
+						
+						if (type != null) {
+							count += JSONWriter.generate(type);
+						}
+					}
+				}
+			}
+			
+			logger.debug(count + " JSON writers generated");
+		} catch (Exception e) {
+			logger.warn("Failed to generate JSON writers; They are generated on demand", e);
+		}
+	}
+	
+	// Returns the element type of the lazy sequence, the asynchronous result 
+	// and the array.
+	private static Type element(Type type) {
+		if (type instanceof GenericArrayType) {
+			return element(((GenericArrayType) type).getGenericComponentType());
+		} else if (type instanceof Class<?> && ((Class<?>) type).isArray()) {
+			return element(((Class<?>) type).getComponentType());
+		} else if (type instanceof ParameterizedType) {
+			Class<?> raw = Types.getRawType(type);
+			
+			if (Iterable.class.isAssignableFrom(raw) || Iterator.class.isAssignableFrom(raw) 
+					|| BaseStream.class.isAssignableFrom(raw) 
+					|| CompletionStage.class.isAssignableFrom(raw)) {
+				return element(((ParameterizedType) type).getActualTypeArguments()[0]);
+			}
+		}
+		
+		return type;
 	}
 
 	/**
 	 * Processes the Web request in Bootleg.
+	 * If the asynchronous pipeline is enabled with {@link #ASYNC} Servlet 
+	 * context parameter, this filter starts the Servlet 3.0 asynchronous 
+	 * processing on the request before the pipeline is started by 
+	 * {@code Pipeline.Compiled#applyAsync(Object)}, so the stages of the 
+	 * pipeline (e.g. the Web endpoint invocation on {@link Configuration#executor()}) 
+	 * may send the response on the other thread than the container thread and 
+	 * the container thread is returned to the pool; the response is completed 
+	 * when the pipeline completes. On the Servlet container that does not 
+	 * support the asynchronous processing (or this filter is not declared with 
+	 * <code>&lt;async-supported&gt;true&lt;/async-supported&gt;</code>), the 
+	 * container thread waits for the completion of the pipeline.
 	 * 
 	 * @param request HTTP request.
 	 * @param response HTTP response.
@@ -109,16 +233,102 @@ public class BootlegFilter implements Filter {
 	 */
 	public void doFilter(ServletRequest request, ServletResponse response,
 			FilterChain chain) throws IOException, ServletException {
+		if (async && request.getAttribute(SUSPENDED) != null) {
+			// Re-dispatched by the container; the pipeline has been started.
+			return;
+		}
+		
+		Object asyncContext = null;
+		
 		try {
-			pipeline.apply(new WebContext(configuration, (HttpServletRequest) request, (HttpServletResponse) response, chain));
+			WebContext context = new WebContext(configuration, application, (HttpServletRequest) request, (HttpServletResponse) response, chain);
+			
+			if (!async) {
+				pipeline.apply(context);
+				return;
+			}
+			
+			asyncContext = suspend(request);
+			CompletableFuture<WebContext> future = pipeline.applyAsync(context).toCompletableFuture();
+			
+			if (asyncContext != null) {
+				resume(asyncContext, response, future);
+				return;
+			}
+			
+			future.get();
 		} catch (Exception e) {
-			logger.warn("Failed to process HTTP request", e);
+			if (asyncContext != null) {
+				CompletableFuture<WebContext> future = new CompletableFuture<WebContext>();
+				future.completeExceptionally(e);
+				resume(asyncContext, response, future);
+				return;
+			}
+			
+			logger.warn("Failed to process HTTP request", 
+					(e instanceof ExecutionException) ? e.getCause() : e);
 			((HttpServletResponse) response).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 		}
 	}
+	
+	// Starts Servlet 3.0 asynchronous processing reflectively (this filter is 
+	// compiled against Servlet 2.5). Returns the AsyncContext or null if the 
+	// request does not support the asynchronous processing.
+	private Object suspend(ServletRequest request) {
+		if (startAsync == null) {
+			return null;
+		}
+		
+		try {
+			if (!Boolean.TRUE.equals(isAsyncSupported.invoke(request))) {
+				return null;
+			}
+			
+			request.setAttribute(SUSPENDED, Boolean.TRUE);
+			return startAsync.invoke(request);
+		} catch (Exception e) {
+			request.removeAttribute(SUSPENDED);
+			logger.debug("Failed to start asynchronous processing", e);
+			return null;
+		}
+	}
+	
+	// Completes the asynchronous processing when the pipeline completes.
+	private void resume(final Object asyncContext, final ServletResponse response, 
+			CompletableFuture<WebContext> future) {
+		future.whenComplete(new BiConsumer<WebContext, Throwable>() {
+
+			public void accept(WebContext context, Throwable throwable) {
+				try {
+					if (throwable != null) {
+						logger.warn("Failed to process HTTP request", throwable);
+						
+						if (!response.isCommitted()) {
+							((HttpServletResponse) response).sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+						}
+					}
+					
+				} catch (IOException e) {
+					logger.warn("Failed to send HTTP response", e);
+				} finally {
+					try {
+						complete.invoke(asyncContext);
+					} catch (Exception e) {
+						logger.warn("Failed to complete asynchronous processing", e);
+					}
+				}
+			}
+			
+		});
+	}
 
 	/** Destroys this fileter. */
 	public void destroy() {
+		if (configuration != null 
+				&& configuration.executor() instanceof ExecutorService) {
+			((ExecutorService) configuration.executor()).shutdown();
+		}
+		
 		logger.info("Bootleg stopped");
 	}
 	
@@ -17,6 +17,7 @@ package org.eiichiro.bootleg;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.servlet.ServletContext;
 
@@ -79,4 +80,21 @@ public interface Configuration {
 	 */
 	public Collection<Class<?>> endpoints();
 	
+	/**
+	 * Returns the {@code Executor} to invoke Web endpoint methods on in the 
+	 * asynchronous pipeline (see {@link BootlegFilter#ASYNC}).
+	 * If <code>null</code> is returned (by default) or the asynchronous 
+	 * pipeline is not enabled, Web endpoint methods are invoked on the Servlet 
+	 * container thread. If the {@code Executor} is an 
+	 * {@code ExecutorService}, it is shut down when {@link BootlegFilter} is 
+	 * destroyed.
+	 * 
+	 * @return The {@code Executor} to invoke Web endpoint methods on or 
+	 * <code>null</code>.
+	 * @see Invoke
+	 */
+	public default Executor executor() {
+		return null;
+	}
+	
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of Web endpoint methods for the default URI convention 
+ * (URI ends with /.../&lt;simple-name-of-the-endpoint-class&gt;/&lt;endpoint-method&gt;). 
+ * The index is built once from the Web endpoint classes and both of the 
+ * endpoint class name and the method name are looked up case-insensitively 
+ * by the character range in the requested URI, so {@link Route} resolves 
+ * the Web endpoint method without splitting the URI or copying the method 
+ * array of the endpoint class.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Convention {
+
+	private static final Logger logger = LoggerFactory.getLogger(Convention.class);
+	
+	private final Table<Table<Method>> endpoints;
+	
+	/**
+	 * Constructs a new {@code Convention} from the specified Web endpoint 
+	 * classes.
+	 * 
+	 * @param endpoints Web endpoint classes.
+	 */
+	Convention(Collection<Class<?>> endpoints) {
+		List<Class<?>> classes = new ArrayList<Class<?>>();
+		List<Table<Method>> tables = new ArrayList<Table<Method>>();
+		
+		for (Class<?> endpoint : endpoints) {
+			String name = endpoint.getSimpleName();
+			Method[] methods = endpoint.getMethods();
+			Table<Method> table = new Table<Method>(methods.length);
+			
+			for (Method method : methods) {
+				table.put(method.getName(), method, false);
+			}
+			
+			for (Class<?> clazz : classes) {
+				if (clazz.getSimpleName().equalsIgnoreCase(name)) {
+					logger.warn("Web endpoint class name is duplicated: ["
+							+ clazz + "] is overwritten by [" + endpoint + "]");
+				}
+			}
+			
+			classes.add(endpoint);
+			tables.add(table);
+		}
+		
+		Table<Table<Method>> table = new Table<Table<Method>>(classes.size());
+		
+		for (int i = 0; i < classes.size(); i++) {
+			table.put(classes.get(i).getSimpleName(), tables.get(i), true);
+		}
+		
+		this.endpoints = table;
+	}
+	
+	/**
+	 * Returns the Web endpoint method table of the endpoint class whose simple 
+	 * name is equal to the characters of the specified URI in the range
+	 * <code>[start, end)</code> ignoring case.
+	 * 
+	 * @param uri The requested URI.
+	 * @param start The start index of the endpoint class name.
+	 * @param end The end index of the endpoint class name.
+	 * @return The Web endpoint method table or <code>null</code> if no 
+	 * endpoint class is found.
+	 */
+	Table<Method> endpoint(String uri, int start, int end) {
+		return endpoints.get(uri, start, end);
+	}
+	
+	/**
+	 * Immutable open-addressing hash table keyed by case-insensitive name.
+	 * 
+	 * @param <V> The type of value.
+	 */
+	static final class Table<V> {
+		
+		private final String[] keys;
+		
+		private final Object[] values;
+		
+		private final int mask;
+		
+		private Table(int size) {
+			int capacity = 2;
+			
+			while (capacity < size * 2) {
+				capacity <<= 1;
+			}
+			
+			keys = new String[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+		}
+		
+		private void put(String key, V value, boolean overwrite) {
+			int i = hash(key, 0, key.length()) & mask;
+			
+			while (keys[i] != null) {
+				if (keys[i].equalsIgnoreCase(key)) {
+					if (overwrite) {
+						values[i] = value;
+					}
+					
+					return;
+				}
+				
+				i = (i + 1) & mask;
+			}
+			
+			keys[i] = key;
+			values[i] = value;
+		}
+		
+		/**
+		 * Returns the value whose key is equal to the characters of the 
+		 * specified string in the range <code>[start, end)</code> ignoring 
+		 * case.
+		 * 
+		 * @param string The string to be looked up.
+		 * @param start The start index of the key.
+		 * @param end The end index of the key.
+		 * @return The value or <code>null</code> if no value is found.
+		 */
+		@SuppressWarnings("unchecked")
+		V get(String string, int start, int end) {
+			int length = end - start;
+			int i = hash(string, start, end) & mask;
+			String key;
+			
+			while ((key = keys[i]) != null) {
+				if (key.length() == length
+						&& key.regionMatches(true, 0, string, start, length)) {
+					return (V) values[i];
+				}
+				
+				i = (i + 1) & mask;
+			}
+			
+			return null;
+		}
+		
+		private static int hash(String string, int start, int end) {
+			int h = 0;
+			
+			for (int i = start; i < end; i++) {
+				h = 31 * h + Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+			}
+			
+			return h ^ (h >>> 16);
+		}
+	
+	}
+
+}
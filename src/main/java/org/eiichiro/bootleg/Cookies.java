@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Name-to-value map of the cookies in the HTTP request.
+ * The map is built in one pass from the raw <code>Cookie</code> request 
+ * headers without allocating the container's {@code Cookie} objects and is 
+ * shared by every cookie-sourced Web endpoint method parameter in the 
+ * request. If the request is wrapped ({@code HttpServletRequestWrapper}) or 
+ * has no <code>Cookie</code> header, the cookies are taken from 
+ * {@code HttpServletRequest#getCookies()}, so the request wrappers that 
+ * provide the cookies programmatically are still supported.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Cookies {
+
+	private final Map<String, String> cookies = new LinkedHashMap<String, String>();
+	
+	private Index index;
+	
+	/**
+	 * Builds the cookie map from the specified HTTP request.
+	 * 
+	 * @param request The HTTP request.
+	 */
+	Cookies(HttpServletRequest request) {
+		Enumeration<?> headers = (request instanceof HttpServletRequestWrapper) 
+				? null : request.getHeaders("Cookie");
+		
+		if (headers != null && headers.hasMoreElements()) {
+			while (headers.hasMoreElements()) {
+				parse((String) headers.nextElement());
+			}
+		} else {
+			Cookie[] cookies = request.getCookies();
+			
+			if (cookies != null) {
+				for (Cookie cookie : cookies) {
+					if (!this.cookies.containsKey(cookie.getName())) {
+						this.cookies.put(cookie.getName(), cookie.getValue());
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the value of the cookie specified by the name. If the cookie 
+	 * with the same name appears more than once, the first one is returned.
+	 * 
+	 * @param name The cookie name.
+	 * @return The cookie value or <code>null</code> if the cookie is not found.
+	 */
+	String get(String name) {
+		return cookies.get(name);
+	}
+	
+	/**
+	 * Returns the index of the indexed cookie names.
+	 * 
+	 * @return The index of the indexed cookie names.
+	 */
+	Index index() {
+		if (index == null) {
+			index = new Index(Collections.enumeration(cookies.keySet()));
+		}
+		
+		return index;
+	}
+	
+	// Parses "name=value; name2=value2" pairs separated by ';' (or ',' as well 
+	// only in the RFC 2965 header that starts with $Version, so the unquoted 
+	// value that contains ',' is kept as the container does). The attributes 
+	// of the obsolete RFC 2109/2965 cookie ($Version, $Path and $Domain) are 
+	// skipped and the value in double quotes is unquoted (the separators in 
+	// it are kept and the backslash escapes the next character).
+	private void parse(String header) {
+		int length = header.length();
+		int i = 0;
+		char comma = (header.trim().startsWith("$Version")) ? ',' : ';';
+		
+		while (i < length) {
+			int start = i;
+			char c = 0;
+			
+			while (i < length && (c = header.charAt(i)) != '=' && c != ';' && c != comma) {
+				i++;
+			}
+			
+			String name = header.substring(start, i).trim();
+			
+			if (i == length || c != '=') {
+				// No value.
+				i++;
+				continue;
+			}
+			
+			i++;
+			
+			while (i < length && header.charAt(i) == ' ') {
+				i++;
+			}
+			
+			String value = null;
+			
+			if (i < length && header.charAt(i) == '"') {
+				StringBuilder builder = new StringBuilder();
+				
+				for (i++; i < length && (c = header.charAt(i)) != '"'; i++) {
+					if (c == '\\' && i + 1 < length) {
+						c = header.charAt(++i);
+					}
+					
+					builder.append(c);
+				}
+				
+				value = builder.toString();
+				
+				while (i < length && (c = header.charAt(i)) != ';' && c != comma) {
+					i++;
+				}
+			} else {
+				start = i;
+				
+				while (i < length && (c = header.charAt(i)) != ';' && c != comma) {
+					i++;
+				}
+				
+				value = header.substring(start, i).trim();
+			}
+			
+			if (name.length() > 0 && name.charAt(0) != '$' 
+					&& !cookies.containsKey(name)) {
+				cookies.put(name, value);
+			}
+			
+			i++;
+		}
+	}
+	
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * {@code Cursor} is a lazy sequence of the elements that holds the resources 
+ * (e.g. database cursor) while it is being iterated.
+ * If the Web endpoint method returns {@code Cursor} (or {@code Iterator} or 
+ * {@code java.util.stream.BaseStream}), {@link Send} streams the elements to the client one 
+ * by one instead of serializing the complete collection, and closes the 
+ * {@code Cursor} when the elements are exhausted, the response fails or the 
+ * client disconnects.
+ * 
+ * @param <E> The type of the element.
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public interface Cursor<E> extends Iterator<E>, Closeable {}
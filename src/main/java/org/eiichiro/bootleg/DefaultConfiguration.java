@@ -16,6 +16,7 @@
 package org.eiichiro.bootleg;
 
 import java.io.File;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
@@ -27,6 +28,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletContext;
 
@@ -43,6 +49,8 @@ import org.eiichiro.reverb.system.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Bootleg framework's default configuration.
  * If you would not specify your own configuration in web.xml, Bootleg uses this 
@@ -52,6 +60,17 @@ import org.slf4j.LoggerFactory;
  */
 public class DefaultConfiguration implements Configuration {
 
+	/**
+	 * Servlet context parameter key to specify the {@code Executor} to invoke 
+	 * Web endpoint methods on (<code>virtual</code> or the number of threads).
+	 * 
+	 * @see #executor()
+	 */
+	public static final String EXECUTOR = "org.eiichiro.bootleg.executor";
+	
+	/** The default number of threads of the bounded thread pool. */
+	public static final int THREADS = 200;
+	
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	
 	private Map<String, Class<? extends Request>> requestTypes = new HashMap<String, Class<? extends Request>>() {
@@ -87,6 +106,7 @@ public class DefaultConfiguration implements Configuration {
 	
 	{
 		responseTypes.put(MediaType.APPLICATION_JSON, JSONResponse.class);
+		responseTypes.put(MediaType.APPLICATION_NDJSON, JSONResponse.class);
 		responseTypes.put(MediaType.APPLICATION_XML, XMLResponse.class);
 		responseTypes.put(MediaType.TEXT_HTML, GenericResponse.class);
 		responseTypes.put(MediaType.TEXT_PLAIN, GenericResponse.class);
@@ -105,6 +125,11 @@ public class DefaultConfiguration implements Configuration {
 	@Override
 	public void init(ServletContext context) {
 		this.context = context;
+		String executor = (context == null) ? null : context.getInitParameter(EXECUTOR);
+		
+		if (executor != null && !executor.trim().isEmpty()) {
+			this.executor = executor(executor.trim());
+		}
 	}
 
 	/**
@@ -175,7 +200,7 @@ public class DefaultConfiguration implements Configuration {
 		return responseTypes;
 	}
 	
-	private Collection<Class<?>> endpoints;
+	private volatile Collection<Class<?>> endpoints;
 	private final Object lock = new Object();
 
 	/**
@@ -254,4 +279,81 @@ public class DefaultConfiguration implements Configuration {
 		return endpoints;
 	}
 
+	private Executor executor;
+	
+	/**
+	 * Returns the {@code Executor} specified by {@link #EXECUTOR} Servlet 
+	 * context parameter. The {@code Executor} is used only in the 
+	 * asynchronous pipeline (see {@link BootlegFilter#ASYNC}).
+	 * If the parameter is <code>virtual</code>, Web endpoint methods are 
+	 * invoked on a new virtual thread per request when the JVM supports 
+	 * virtual threads, otherwise (including the JVM that provides virtual 
+	 * threads only as a preview feature not enabled) on the bounded thread pool 
+	 * of {@link #THREADS} threads. If the parameter is a number, they are invoked on the bounded 
+	 * thread pool of the specified number of threads. The bounded thread pool 
+	 * queues the invocations up to the number of threads and rejects the 
+	 * others (Bootleg responds them with 503 (SERVICE_UNAVAILABLE)). If the 
+	 * parameter is not specified, this method returns <code>null</code> and 
+	 * Web endpoint methods are invoked on the Servlet container thread.
+	 * 
+	 * @return The {@code Executor} to invoke Web endpoint methods on or 
+	 * <code>null</code>.
+	 */
+	public Executor executor() {
+		return executor;
+	}
+	
+	private Executor executor(String executor) {
+		if (executor.equalsIgnoreCase("virtual")) {
+			try {
+				Executor virtual = (Executor) Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+				logger.info("Web endpoint methods are invoked on virtual threads");
+				return virtual;
+			} catch (NoSuchMethodException e) {
+				logger.info("Virtual threads are not supported on Java [" 
+						+ Environment.getProperty("java.version") 
+						+ "] - Web endpoint methods are invoked on the bounded thread pool");
+				return pool(THREADS);
+			} catch (IllegalAccessException e) {
+				logger.info("Virtual threads are not accessible on Java [" 
+						+ Environment.getProperty("java.version") 
+						+ "] - Web endpoint methods are invoked on the bounded thread pool", e);
+				return pool(THREADS);
+			} catch (InvocationTargetException e) {
+				// Preview feature not enabled (Java 19 and 20 without '--enable-preview').
+				if (e.getCause() instanceof UnsupportedOperationException) {
+					logger.info("Virtual threads are not enabled on Java [" 
+							+ Environment.getProperty("java.version") 
+							+ "] - Web endpoint methods are invoked on the bounded thread pool");
+					return pool(THREADS);
+				}
+				
+				throw new UncheckedException(e.getCause());
+			} catch (Exception e) {
+				throw new UncheckedException(e);
+			}
+		}
+		
+		try {
+			int threads = Integer.parseInt(executor);
+			
+			if (threads > 0) {
+				return pool(threads);
+			}
+		} catch (NumberFormatException e) {}
+		
+		throw new IllegalArgumentException("Servlet context parameter '" + EXECUTOR 
+				+ "' must be 'virtual' or greater than [0]: [" + executor + "]");
+	}
+	
+	private Executor pool(int threads) {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 
+				60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(threads), 
+				new ThreadFactoryBuilder().setNameFormat("bootleg-invoke-%d").setDaemon(true).build());
+		pool.allowCoreThreadTimeOut(true);
+		logger.info("Web endpoint methods are invoked on the bounded thread pool [" + threads + "]");
+		return pool;
+	}
+	
 }
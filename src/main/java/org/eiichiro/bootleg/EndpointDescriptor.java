@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eiichiro.bootleg.annotation.Accepts;
+import org.eiichiro.bootleg.annotation.Allows;
+import org.eiichiro.bootleg.annotation.Generates;
+import org.eiichiro.bootleg.annotation.Negotiated;
+
+import com.google.common.base.Function;
+
+/**
+ * Compiled metadata of Web endpoint method.
+ * The descriptor is built once per Web endpoint method from its annotations 
+ * ({@code @Allows}, {@code @Accepts}, {@code @Generates} and 
+ * {@code @Negotiated}) and its parameter binding plan, so {@link Receive} and 
+ * {@link Send} check the HTTP verb with a bit operation and the MIME media 
+ * type with a character trie instead of reading the annotations on every 
+ * request. The {@code Response} type of the MIME media type specified in 
+ * {@code @Generates} is resolved once per {@code Configuration}, and the 
+ * {@code Request} implementations attach their own per-method metadata (e.g. 
+ * the projection of JSON request body) with {@link #attachment(Class, Function)}. 
+ * The descriptors are held per Web endpoint class by {@code ClassValue}, so 
+ * they do not prevent the class from being unloaded.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class EndpointDescriptor {
+
+	private static final ClassValue<ConcurrentMap<Method, EndpointDescriptor>> descriptors 
+			= new ClassValue<ConcurrentMap<Method, EndpointDescriptor>>() {
+
+		@Override
+		protected ConcurrentMap<Method, EndpointDescriptor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Method, EndpointDescriptor>();
+		}
+		
+	};
+	
+	private static final int ALL = -1;
+	
+	private final Method method;
+	
+	private final String name;
+	
+	private final int verbs;
+	
+	private final Prefix accepts;
+	
+	private final String generates;
+	
+	// Response type of @Generates resolved for the configuration.
+	private volatile ResponseType responseType;
+	
+	private final boolean negotiated;
+	
+	private final Binding binding;
+	
+	private final ConcurrentMap<Class<?>, Object> attachments = new ConcurrentHashMap<Class<?>, Object>();
+	
+	private EndpointDescriptor(Method method) {
+		this.method = method;
+		this.name = method.getDeclaringClass().getName() + "#" + method.getName();
+		Allows allows = method.getAnnotation(Allows.class);
+		
+		if (allows == null) {
+			verbs = ALL;
+		} else {
+			int verbs = 0;
+			
+			for (Verb verb : allows.value()) {
+				verbs |= 1 << verb.ordinal();
+			}
+			
+			// HEAD is accepted by the Web endpoint method that allows GET.
+			if ((verbs & (1 << Verb.GET.ordinal())) != 0) {
+				verbs |= 1 << Verb.HEAD.ordinal();
+			}
+			
+			this.verbs = verbs;
+		}
+		
+		Accepts accepts = method.getAnnotation(Accepts.class);
+		
+		this.accepts = (accepts == null) ? null : new Prefix(Arrays.asList(accepts.value()));
+		
+		Generates generates = method.getAnnotation(Generates.class);
+		this.generates = (generates == null) ? null : generates.value();
+		this.negotiated = (generates == null && method.isAnnotationPresent(Negotiated.class));
+		this.binding = new Binding(method);
+	}
+	
+	/**
+	 * Returns the descriptor of the specified Web endpoint method.
+	 * The descriptor is built on the first invocation for the method and 
+	 * cached.
+	 * 
+	 * @param method Web endpoint method.
+	 * @return The descriptor of the specified Web endpoint method.
+	 */
+	static EndpointDescriptor of(Method method) {
+		ConcurrentMap<Method, EndpointDescriptor> map = descriptors.get(method.getDeclaringClass());
+		EndpointDescriptor descriptor = map.get(method);
+		
+		if (descriptor == null) {
+			descriptor = new EndpointDescriptor(method);
+			EndpointDescriptor previous = map.putIfAbsent(method, descriptor);
+			
+			if (previous != null) {
+				descriptor = previous;
+			}
+		}
+		
+		return descriptor;
+	}
+	
+	/**
+	 * Returns the Web endpoint method.
+	 * 
+	 * @return The Web endpoint method.
+	 */
+	Method method() {
+		return method;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the Web endpoint method allows the 
+	 * specified HTTP verb. If the Web endpoint method is not qualified by 
+	 * {@code @Allows}, every HTTP verb is allowed.
+	 * 
+	 * @param verb HTTP verb.
+	 * @return <code>true</code> if the Web endpoint method allows the 
+	 * specified HTTP verb.
+	 */
+	boolean allows(Verb verb) {
+		return (verbs & (1 << verb.ordinal())) != 0;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the Web endpoint method accepts the 
+	 * specified content type. If the Web endpoint method is not qualified by 
+	 * {@code @Accepts}, every content type is accepted. Otherwise, the content 
+	 * type must start with one of the MIME media types specified in 
+	 * {@code @Accepts}.
+	 * 
+	 * @param contentType The content type of HTTP request.
+	 * @return <code>true</code> if the Web endpoint method accepts the 
+	 * specified content type.
+	 */
+	boolean accepts(String contentType) {
+		if (accepts == null) {
+			return true;
+		}
+		
+		return contentType != null && accepts.matches(contentType);
+	}
+	
+	/**
+	 * Returns the MIME media type specified in {@code @Generates}.
+	 * 
+	 * @return The MIME media type specified in {@code @Generates} or 
+	 * <code>null</code> if the Web endpoint method is not qualified by it.
+	 */
+	String generates() {
+		return generates;
+	}
+	
+	/**
+	 * Returns the {@code Response} type of the MIME media type specified in 
+	 * {@code @Generates} provided by the specified configuration. The 
+	 * {@code Response} type is resolved on the first invocation for the 
+	 * configuration and cached.
+	 * 
+	 * @param configuration The current configuration.
+	 * @return The {@code Response} type or <code>null</code> if the 
+	 * configuration does not provide it.
+	 */
+	Class<? extends Response> responseType(Configuration configuration) {
+		ResponseType responseType = this.responseType;
+		
+		if (responseType == null || responseType.configuration != configuration) {
+			responseType = new ResponseType(configuration, 
+					configuration.responseTypes().get(generates));
+			this.responseType = responseType;
+		}
+		
+		return responseType.type;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the MIME media type of HTTP response is 
+	 * negotiated with "Accept" HTTP request header ({@code @Negotiated} without 
+	 * {@code @Generates}).
+	 * 
+	 * @return <code>true</code> if the MIME media type of HTTP response is 
+	 * negotiated.
+	 */
+	boolean negotiated() {
+		return negotiated;
+	}
+	
+	/**
+	 * Returns the parameter binding plan of the Web endpoint method.
+	 * 
+	 * @return The parameter binding plan of the Web endpoint method.
+	 */
+	Binding binding() {
+		return binding;
+	}
+	
+	/**
+	 * Returns the metadata of the specified type attached to the Web endpoint 
+	 * method. The metadata is computed with the specified function on the 
+	 * first invocation for the type and cached.
+	 * 
+	 * @param <T> The type of the metadata.
+	 * @param type The type of the metadata.
+	 * @param function The function to compute the metadata from the Web 
+	 * endpoint method.
+	 * @return The metadata attached to the Web endpoint method.
+	 */
+	<T> T attachment(Class<T> type, Function<Method, ? extends T> function) {
+		Object attachment = attachments.get(type);
+		
+		if (attachment == null) {
+			attachment = function.apply(method);
+			Object previous = attachments.putIfAbsent(type, attachment);
+			
+			if (previous != null) {
+				attachment = previous;
+			}
+		}
+		
+		return type.cast(attachment);
+	}
+	
+	/** Returns "&lt;endpoint-class-name&gt;#&lt;method-name&gt;". */
+	@Override
+	public String toString() {
+		return name;
+	}
+	
+	private static final class ResponseType {
+		
+		private final Configuration configuration;
+		
+		private final Class<? extends Response> type;
+		
+		private ResponseType(Configuration configuration, Class<? extends Response> type) {
+			this.configuration = configuration;
+			this.type = type;
+		}
+		
+	}
+	
+}
@@ -17,11 +17,6 @@ package org.eiichiro.bootleg;
 
 import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Map;
-import java.util.TreeMap;
-
-import javax.servlet.http.HttpServletRequest;
 
 import com.google.common.base.Function;
 
@@ -42,28 +37,17 @@ public class GenericRequest extends AbstractRequest {
 	 */
 	@Override
 	public Object body(Type type, String name) {
-		return parameter(type, name, new Function<String, Object>() {
+		final Function<String, Object> value = new Function<String, Object>() {
 
 			public Object apply(String name) {
 				return context.request().getParameter(name);
 			}
 			
-		}, new Function<String, Collection<Object>>() {
+		};
+		return parameter(type, name, value, new Function<String, Collection<Object>>() {
 
-			@SuppressWarnings("unchecked")
 			public Collection<Object> apply(String name) {
-				HttpServletRequest request = context.request();
-				Map<String, Object> map = new TreeMap<String, Object>();
-				
-				for (Object object : Collections.list(request.getParameterNames())) {
-					String key = (String) object;
-					
-					if (key.startsWith(name + "[")) {
-						map.put(key, request.getParameter(key));
-					}
-				}
-				
-				return (map.isEmpty()) ? null : map.values();
+				return values(parameters(), name, value);
 			}
 			
 		});
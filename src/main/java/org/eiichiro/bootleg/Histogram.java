@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of the latency in nanoseconds.
+ * The values are counted in the log-linear buckets (8 sub-buckets per power 
+ * of 2), so the percentile is reported within 1/16 relative error without 
+ * holding the recorded values.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Histogram {
+
+	private static final int LINEAR = 16;
+	
+	private static final int SUB_BUCKETS = 8;
+	
+	private final AtomicLongArray buckets = new AtomicLongArray(
+			LINEAR + (Long.SIZE - 4) * SUB_BUCKETS);
+	
+	private final AtomicLong count = new AtomicLong();
+	
+	private final AtomicLong sum = new AtomicLong();
+	
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * Records the specified value.
+	 * 
+	 * @param value The value in nanoseconds.
+	 */
+	void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		
+		buckets.incrementAndGet(index(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current;
+		
+		while (value > (current = max.get())) {
+			if (max.compareAndSet(current, value)) {
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of the recorded values.
+	 * 
+	 * @return The number of the recorded values.
+	 */
+	long count() {
+		return count.get();
+	}
+	
+	/**
+	 * Returns the mean of the recorded values.
+	 * 
+	 * @return The mean of the recorded values in nanoseconds.
+	 */
+	double mean() {
+		long count = this.count.get();
+		return (count == 0) ? 0 : (double) sum.get() / count;
+	}
+	
+	/**
+	 * Returns the maximum of the recorded values.
+	 * 
+	 * @return The maximum of the recorded values in nanoseconds.
+	 */
+	long max() {
+		return max.get();
+	}
+	
+	/**
+	 * Returns the value at the specified percentile.
+	 * 
+	 * @param percentile The percentile (0 &lt; percentile &lt;= 100).
+	 * @return The value at the specified percentile in nanoseconds.
+	 */
+	long percentile(double percentile) {
+		long count = this.count.get();
+		
+		if (count == 0) {
+			return 0;
+		}
+		
+		long rank = (long) Math.ceil(percentile / 100 * count);
+		long cumulative = 0;
+		
+		for (int i = 0; i < buckets.length(); i++) {
+			cumulative += buckets.get(i);
+			
+			if (cumulative >= rank) {
+				return Math.min(value(i), max.get());
+			}
+		}
+		
+		return max.get();
+	}
+	
+	private static int index(long value) {
+		if (value < LINEAR) {
+			return (int) value;
+		}
+		
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+		return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+	}
+	
+	// The midpoint of the bucket.
+	private static long value(int index) {
+		if (index < LINEAR) {
+			return index;
+		}
+		
+		int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+		int sub = (index - LINEAR) % SUB_BUCKETS;
+		long lower = (long) (SUB_BUCKETS + sub) << (exponent - 3);
+		return lower + (1L << (exponent - 4));
+	}
+	
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the indexed names (<code>&lt;name&gt;[&lt;index&gt;]</code>) in 
+ * a source of Web endpoint method parameter.
+ * The index is built from the names of the source in one pass; the indexed 
+ * names are grouped by the name before the first '[' and sorted by the 
+ * numeric index (the names with non-numeric index follow them in the 
+ * lexicographical order), so the collection parameters are constructed 
+ * without enumerating all of the names for each parameter.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Index {
+
+	private static final Comparator<String> comparator = new Comparator<String>() {
+
+		public int compare(String o1, String o2) {
+			long i1 = index(o1);
+			long i2 = index(o2);
+			
+			if (i1 >= 0 && i2 >= 0) {
+				return (i1 < i2) ? -1 : (i1 == i2) ? o1.compareTo(o2) : 1;
+			} else if (i1 >= 0) {
+				return -1;
+			} else if (i2 >= 0) {
+				return 1;
+			}
+			
+			return o1.compareTo(o2);
+		}
+		
+	};
+	
+	private final Map<String, List<String>> names = new HashMap<String, List<String>>();
+	
+	/**
+	 * Builds the index from the specified names.
+	 * 
+	 * @param names The names of the source.
+	 */
+	Index(Enumeration<?> names) {
+		while (names.hasMoreElements()) {
+			String name = (String) names.nextElement();
+			int bracket = name.indexOf('[');
+			
+			if (bracket > 0) {
+				String prefix = name.substring(0, bracket);
+				List<String> list = this.names.get(prefix);
+				
+				if (list == null) {
+					list = new ArrayList<String>();
+					this.names.put(prefix, list);
+				}
+				
+				list.add(name);
+			}
+		}
+		
+		for (List<String> list : this.names.values()) {
+			Collections.sort(list, comparator);
+		}
+	}
+	
+	/**
+	 * Returns the indexed names that start with the specified name followed 
+	 * by '['.
+	 * 
+	 * @param name The name of the collection parameter.
+	 * @return The indexed names sorted by the index or the empty list if no 
+	 * indexed name is found.
+	 */
+	List<String> get(String name) {
+		int bracket = name.indexOf('[');
+		List<String> list = names.get((bracket == -1) ? name : name.substring(0, bracket));
+		
+		if (list == null) {
+			return Collections.emptyList();
+		} else if (bracket == -1) {
+			return list;
+		}
+		
+		// Nested name (e.g. 'name[0]' of 'name[0][1]').
+		String prefix = name + "[";
+		List<String> nested = new ArrayList<String>();
+		
+		for (String n : list) {
+			if (n.startsWith(prefix)) {
+				nested.add(n);
+			}
+		}
+		
+		return nested;
+	}
+	
+	// Returns the numeric index of the specified name (<name>[<digits>]) or -1.
+	private static long index(String name) {
+		int start = name.indexOf('[') + 1;
+		int end = name.length() - 1;
+		
+		if (start == 0 || end <= start || name.charAt(end) != ']' || end - start > 18) {
+			return -1;
+		}
+		
+		long index = 0;
+		
+		for (int i = start; i < end; i++) {
+			char c = name.charAt(i);
+			
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			
+			index = index * 10 + (c - '0');
+		}
+		
+		return index;
+	}
+	
+}
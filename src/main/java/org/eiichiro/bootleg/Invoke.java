@@ -16,6 +16,15 @@
 package org.eiichiro.bootleg;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -28,10 +37,22 @@ import com.google.common.base.Predicate;
 
 /**
  * HTTP request processing pipeline stage to invoke Web endpoint method.
+ * If the Web endpoint method returns {@code CompletionStage}, the completion 
+ * value is set to the HTTP request processing context as the invocation 
+ * result; {@code Invoke} waits for the completion in 
+ * {@code Invoke#apply(WebContext)} and does not wait for it in 
+ * {@code Invoke#applyAsync(WebContext)} (the asynchronous pipeline).
+ * If {@link Configuration#executor()} returns {@code Executor}, 
+ * {@code Invoke#applyAsync(WebContext)} invokes the Web endpoint method on it 
+ * instead of the Servlet container thread; {@code Invoke#apply(WebContext)} 
+ * always invokes it on the container thread, since waiting for the 
+ * {@code Executor} would hold the container thread anyway. If the 
+ * {@code Executor} rejects the invocation, {@code Invoke} sends HTTP response 
+ * with the status code 503 (SERVICE_UNAVAILABLE).
  * 
  * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
  */
-public class Invoke implements Predicate<WebContext> {
+public class Invoke implements Predicate<WebContext>, Pipeline.AsyncStage<WebContext> {
 
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	
@@ -55,20 +76,111 @@ public class Invoke implements Predicate<WebContext> {
 	 * @param context HTTP request processing context.
 	 */
 	public boolean apply(WebContext context) {
-		WebException e = null;
-		
 		try {
-			context.result(new MethodInvocation<Object>(
-					context.method(), 
-					instantiate(context.method().getDeclaringClass()), 
-					context.parameters().toArray()).proceed());
+			Object result = invoke(context);
+			
+			if (result instanceof CompletionStage<?>) {
+				result = get(((CompletionStage<?>) result).toCompletableFuture());
+			}
+			
+			context.result(result);
 			return true;
-		} catch (WebException exception) {
-			e = exception;
 		} catch (Throwable throwable) {
-			e = new EndpointInvocationFailedException(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, throwable);
+			return failed(context, throwable);
+		}
+	}
+	
+	/**
+	 * Invokes Web endpoint method asynchronously.
+	 * If the Web endpoint method returns {@code CompletionStage}, this method 
+	 * returns without waiting for the completion and the returned 
+	 * {@code CompletionStage} is completed with the context when the 
+	 * invocation result is set. The failure is handled in the same way as 
+	 * {@link #apply(WebContext)} and the returned {@code CompletionStage} is 
+	 * completed with <code>null</code> to stop the pipeline.
+	 * 
+	 * @param context HTTP request processing context.
+	 * @return The {@code CompletionStage} of the invocation.
+	 */
+	@SuppressWarnings("unchecked")
+	public CompletionStage<WebContext> applyAsync(final WebContext context) {
+		Executor executor = context.configuration().executor();
+		Object result = null;
+		
+		try {
+			result = (executor == null) ? invoke(context) 
+					: submit(context, executor).thenCompose(new Function<Object, CompletionStage<Object>>() {
+
+						public CompletionStage<Object> apply(Object result) {
+							return (result instanceof CompletionStage<?>) ? (CompletionStage<Object>) result 
+									: CompletableFuture.completedFuture(result);
+						}
+						
+					});
+		} catch (Throwable throwable) {
+			failed(context, throwable);
+			return CompletableFuture.completedFuture(null);
+		}
+		
+		if (result instanceof CompletionStage<?>) {
+			return ((CompletionStage<Object>) result).handle(new BiFunction<Object, Throwable, WebContext>() {
+
+				public WebContext apply(Object result, Throwable throwable) {
+					if (throwable != null) {
+						failed(context, (throwable instanceof CompletionException 
+								&& throwable.getCause() != null) ? throwable.getCause() : throwable);
+						return null;
+					}
+					
+					context.result(result);
+					return context;
+				}
+				
+			});
 		}
 		
+		context.result(result);
+		return CompletableFuture.completedFuture(context);
+	}
+	
+	private Object invoke(WebContext context) throws Throwable {
+		return new MethodInvocation<Object>(
+				context.method(), 
+				instantiate(context.method().getDeclaringClass()), 
+				context.parameters().toArray()).proceed();
+	}
+	
+	// Invokes Web endpoint method on the specified executor.
+	private CompletableFuture<Object> submit(final WebContext context, Executor executor) {
+		try {
+			return CompletableFuture.supplyAsync(new Supplier<Object>() {
+
+				public Object get() {
+					try {
+						return invoke(context);
+					} catch (Throwable throwable) {
+						throw new CompletionException(throwable);
+					}
+				}
+				
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			throw new WebException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, 
+					"Web endpoint invocation is rejected by [" + executor + "]", e);
+		}
+	}
+	
+	private static Object get(CompletableFuture<?> future) throws Throwable {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private boolean failed(WebContext context, Throwable throwable) {
+		WebException e = (throwable instanceof WebException) ? (WebException) throwable 
+				: new EndpointInvocationFailedException(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, throwable);
 		logger.warn("Failed to invoke Web endpoint", e);
 		
 		try {
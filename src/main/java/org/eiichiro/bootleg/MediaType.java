@@ -30,6 +30,9 @@ public abstract class MediaType {
 	/** application/json */
 	public static final String APPLICATION_JSON = "application/json";
 	
+	/** application/x-ndjson (Newline delimited JSON) */
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+	
 	/** text/plain */
 	public static final String TEXT_PLAIN = "text/plain";
 	
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.ObjectName;
+
+import org.eiichiro.reverb.lang.UncheckedException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@code Metrics} is the {@link Pipeline.Listener} that records the latency of 
+ * each HTTP request processing stage and the total latency of each Web 
+ * endpoint method into lock-free histograms.
+ * The metrics is opt-in; set it to the pipeline in your configuration and 
+ * register it to the platform MBean server if you need: 
+ * <pre>
+ * {@code @Override}
+ * public Pipeline&lt;WebContext&gt; pipeline() {
+ *     return super.pipeline().listener(new Metrics(50, 99, 99.9).register());
+ * }
+ * </pre>
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class Metrics implements Pipeline.Listener<WebContext>, MetricsMXBean {
+
+	/** The default object name registered to the platform MBean server. */
+	public static final String NAME = "org.eiichiro.bootleg:type=Metrics";
+	
+	private final double[] percentiles;
+	
+	private final ConcurrentMap<String, Histogram> stages = new ConcurrentHashMap<String, Histogram>();
+	
+	private final ConcurrentMap<Method, Histogram> endpoints = new ConcurrentHashMap<Method, Histogram>();
+	
+	private ObjectName name;
+	
+	/** Constructs a new {@code Metrics} reporting 50, 90 and 99 percentiles. */
+	public Metrics() {
+		this(50, 90, 99);
+	}
+	
+	/**
+	 * Constructs a new {@code Metrics} reporting the specified percentiles.
+	 * 
+	 * @param percentiles The percentiles (0 &lt; percentile &lt;= 100) to be 
+	 * reported.
+	 */
+	public Metrics(double... percentiles) {
+		Preconditions.checkArgument(percentiles != null, 
+				"Parameter 'percentiles' must not be [" + percentiles + "]");
+		
+		for (double percentile : percentiles) {
+			Preconditions.checkArgument(percentile > 0 && percentile <= 100, 
+					"Parameter 'percentiles' must be greater than [0] and less than or equal to [100]");
+		}
+		
+		this.percentiles = percentiles.clone();
+	}
+	
+	/**
+	 * Registers this metrics to the platform MBean server with the default 
+	 * object name {@link #NAME}.
+	 * 
+	 * @return This {@code Metrics} instance.
+	 */
+	public Metrics register() {
+		return register(NAME);
+	}
+	
+	/**
+	 * Registers this metrics to the platform MBean server with the specified 
+	 * object name.
+	 * 
+	 * @param name The object name.
+	 * @return This {@code Metrics} instance.
+	 */
+	public synchronized Metrics register(String name) {
+		Preconditions.checkArgument(name != null, 
+				"Parameter 'name' must not be [" + name + "]");
+		
+		try {
+			ObjectName objectName = new ObjectName(name);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.name = objectName;
+			return this;
+		} catch (Exception e) {
+			throw new UncheckedException(e);
+		}
+	}
+	
+	/** Unregisters this metrics from the platform MBean server. */
+	public synchronized void unregister() {
+		if (name == null) {
+			return;
+		}
+		
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			name = null;
+		} catch (Exception e) {
+			throw new UncheckedException(e);
+		}
+	}
+	
+	public void stage(WebContext context, int index, String name, long nanos) {
+		String key = (name == null || name.isEmpty()) ? "Stage-" + index : name;
+		histogram(stages, key).record(nanos);
+	}
+	
+	public void pipeline(WebContext context, long nanos) {
+		Method method = context.method();
+		
+		if (method != null) {
+			histogram(endpoints, method).record(nanos);
+		}
+	}
+	
+	private static <K> Histogram histogram(ConcurrentMap<K, Histogram> histograms, K key) {
+		Histogram histogram = histograms.get(key);
+		
+		if (histogram == null) {
+			histogram = new Histogram();
+			Histogram previous = histograms.putIfAbsent(key, histogram);
+			
+			if (previous != null) {
+				histogram = previous;
+			}
+		}
+		
+		return histogram;
+	}
+	
+	public Map<String, Statistics> getStages() {
+		Map<String, Statistics> statistics = new LinkedHashMap<String, Statistics>();
+		
+		for (Entry<String, Histogram> entry : stages.entrySet()) {
+			statistics.put(entry.getKey(), new Statistics(entry.getValue(), percentiles));
+		}
+		
+		return statistics;
+	}
+	
+	public Map<String, Statistics> getEndpoints() {
+		Map<String, Statistics> statistics = new TreeMap<String, Statistics>();
+		
+		for (Entry<Method, Histogram> entry : endpoints.entrySet()) {
+			Method method = entry.getKey();
+			statistics.put(method.getDeclaringClass().getName() + "#" + method.getName(), 
+					new Statistics(entry.getValue(), percentiles));
+		}
+		
+		return statistics;
+	}
+	
+	public void reset() {
+		stages.clear();
+		endpoints.clear();
+	}
+	
+	/**
+	 * Snapshot of the latency statistics in milliseconds.
+	 * 
+	 * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+	 */
+	public static class Statistics {
+		
+		private final long count;
+		
+		private final double mean;
+		
+		private final double max;
+		
+		private final Map<String, Double> percentiles;
+		
+		Statistics(Histogram histogram, double[] percentiles) {
+			count = histogram.count();
+			mean = histogram.mean() / 1000000;
+			max = (double) histogram.max() / 1000000;
+			Map<String, Double> values = new LinkedHashMap<String, Double>();
+			
+			for (double percentile : percentiles) {
+				String key = (percentile == Math.rint(percentile)) 
+						? "p" + (long) percentile : "p" + percentile;
+				values.put(key, (double) histogram.percentile(percentile) / 1000000);
+			}
+			
+			this.percentiles = Collections.unmodifiableMap(values);
+		}
+		
+		/**
+		 * Returns the number of the recorded latency.
+		 * 
+		 * @return The number of the recorded latency.
+		 */
+		public long getCount() {
+			return count;
+		}
+		
+		/**
+		 * Returns the mean latency in milliseconds.
+		 * 
+		 * @return The mean latency in milliseconds.
+		 */
+		public double getMean() {
+			return mean;
+		}
+		
+		/**
+		 * Returns the maximum latency in milliseconds.
+		 * 
+		 * @return The maximum latency in milliseconds.
+		 */
+		public double getMax() {
+			return max;
+		}
+		
+		/**
+		 * Returns the latency at each percentile in milliseconds keyed by 
+		 * the percentile (e.g. <code>p99</code>).
+		 * 
+		 * @return The latency at each percentile in milliseconds.
+		 */
+		public Map<String, Double> getPercentiles() {
+			return percentiles;
+		}
+		
+	}
+	
+}
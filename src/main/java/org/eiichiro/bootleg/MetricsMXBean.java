@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.Map;
+
+/**
+ * JMX management interface of {@link Metrics}.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * Returns the latency statistics of each processing stage keyed by the 
+	 * stage name.
+	 * 
+	 * @return The latency statistics of each processing stage.
+	 */
+	public Map<String, Metrics.Statistics> getStages();
+	
+	/**
+	 * Returns the latency statistics of the entire pipeline for each Web 
+	 * endpoint method keyed by <code>&lt;class-name&gt;#&lt;method-name&gt;</code>.
+	 * 
+	 * @return The latency statistics of each Web endpoint method.
+	 */
+	public Map<String, Metrics.Statistics> getEndpoints();
+	
+	/** Clears the recorded latency. */
+	public void reset();
+	
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Specialized parser from {@code String} to the primitive (or its wrapper) 
+ * type.
+ * The parser works on the characters of the string directly and never 
+ * throws on the invalid input; it returns the same result as the standard 
+ * converter of commons-beanutils without the converter registry lookup and 
+ * the exception, or {@link #INVALID} for the invalid input (the standard 
+ * converter returns the default value of the type for it). 
+ * If the parser cannot determine the result, it returns {@link #UNPARSED} and 
+ * the value should be converted by {@code ConvertUtils}. The parser should be 
+ * used only if the standard converter is registered for the type (see 
+ * {@link Types#hasStandardConverter(Class)}).
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+abstract class Parser {
+
+	/** The result that the parser cannot determine the value. */
+	static final Object UNPARSED = new Object();
+	
+	/** The result of the invalid input. */
+	static final Object INVALID = new Object();
+	
+	private static final Map<Class<?>, Parser> parsers = new HashMap<Class<?>, Parser>();
+	
+	private static final Parser INT = new NumberParser(0) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			long l = negated(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			return (l == NOT_INTEGER) ? INVALID : Integer.valueOf((int) integer(value, start, l));
+		}
+		
+	};
+	
+	private static final Parser LONG = new NumberParser(0L) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			long l = negated(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+			return (l == NOT_INTEGER) ? INVALID : Long.valueOf(integer(value, start, l));
+		}
+		
+	};
+	
+	private static final Parser SHORT = new NumberParser((short) 0) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			long l = negated(value, start, end, Short.MIN_VALUE, Short.MAX_VALUE);
+			return (l == NOT_INTEGER) ? INVALID : Short.valueOf((short) integer(value, start, l));
+		}
+		
+	};
+	
+	private static final Parser BYTE = new NumberParser((byte) 0) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			long l = negated(value, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE);
+			return (l == NOT_INTEGER) ? INVALID : Byte.valueOf((byte) integer(value, start, l));
+		}
+		
+	};
+	
+	private static final Parser DOUBLE = new NumberParser(0.0) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			int decimal = decimal(value, start, end);
+			
+			if (decimal == 0) {
+				return INVALID;
+			}
+			
+			return (decimal == 1) ? Double.valueOf(value.substring(start, end)) : UNPARSED;
+		}
+		
+	};
+	
+	private static final Parser FLOAT = new NumberParser((float) 0.0) {
+
+		@Override
+		Object parse(String value, int start, int end) {
+			int decimal = decimal(value, start, end);
+			
+			if (decimal == 0) {
+				return INVALID;
+			}
+			
+			return (decimal == 1) ? Float.valueOf(value.substring(start, end)) : UNPARSED;
+		}
+		
+	};
+	
+	private static final Parser BOOLEAN = new Parser(Boolean.FALSE) {
+
+		@Override
+		Object parse(String value) {
+			// BooleanConverter does not trim the value.
+			int length = value.length();
+			
+			if (length == 0) {
+				return INVALID;
+			} else if (length == 1) {
+				char c = value.charAt(0);
+				
+				if (c == 'y' || c == 'Y' || c == '1') {
+					return Boolean.TRUE;
+				}
+				
+				return (c == 'n' || c == 'N' || c == '0') ? Boolean.FALSE : INVALID;
+			} else if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes") 
+					|| value.equalsIgnoreCase("on")) {
+				return Boolean.TRUE;
+			}
+			
+			return (value.equalsIgnoreCase("false") || value.equalsIgnoreCase("no") 
+					|| value.equalsIgnoreCase("off")) ? Boolean.FALSE : INVALID;
+		}
+		
+	};
+	
+	static {
+		register(INT, Integer.TYPE, Integer.class);
+		register(LONG, Long.TYPE, Long.class);
+		register(SHORT, Short.TYPE, Short.class);
+		register(BYTE, Byte.TYPE, Byte.class);
+		register(DOUBLE, Double.TYPE, Double.class);
+		register(FLOAT, Float.TYPE, Float.class);
+		register(BOOLEAN, Boolean.TYPE, Boolean.class);
+	}
+	
+	// Out of the range of the negated magnitude (never positive).
+	private static final long NOT_INTEGER = 1L;
+	
+	/** The default value of the type (the result of the invalid input). */
+	final Object defaultValue;
+	
+	private Parser(Object defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	private static void register(Parser parser, Class<?>... types) {
+		for (Class<?> type : types) {
+			parsers.put(type, parser);
+		}
+	}
+	
+	/**
+	 * Returns the parser of the specified type.
+	 * 
+	 * @param type The type to which the string is parsed.
+	 * @return The parser of the specified type or <code>null</code> if the 
+	 * type is not supported.
+	 */
+	static Parser of(Class<?> type) {
+		return parsers.get(type);
+	}
+	
+	/**
+	 * Parses the specified string.
+	 * 
+	 * @param value The string to be parsed.
+	 * @return The parsed value, {@link #INVALID} if the string is invalid or 
+	 * {@link #UNPARSED} if the parser cannot determine the value.
+	 */
+	abstract Object parse(String value);
+	
+	private abstract static class NumberParser extends Parser {
+		
+		private NumberParser(Object defaultValue) {
+			super(defaultValue);
+		}
+		
+		@Override
+		Object parse(String value) {
+			int start = 0;
+			int end = value.length();
+			
+			// NumberConverter trims the value.
+			while (start < end && value.charAt(start) <= ' ') {
+				start++;
+			}
+			
+			while (end > start && value.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			
+			return (start == end) ? INVALID : parse(value, start, end);
+		}
+		
+		abstract Object parse(String value, int start, int end);
+		
+	}
+	
+	// Parses the decimal integer in the range [start, end) of the specified 
+	// string into the negated magnitude (never positive, so that the magnitude 
+	// of the minimum value does not overflow). Returns NOT_INTEGER if the 
+	// characters are not a decimal integer or the value is out of the range 
+	// [min, max].
+	private static long negated(String value, int start, int end, long min, long max) {
+		boolean negative = false;
+		char c = value.charAt(start);
+		
+		if (c == '-' || c == '+') {
+			negative = (c == '-');
+			
+			if (++start == end) {
+				return NOT_INTEGER;
+			}
+		}
+		
+		long limit = negative ? min : -max;
+		long multmin = limit / 10;
+		long result = 0;
+		
+		for (int i = start; i < end; i++) {
+			int digit = value.charAt(i) - '0';
+			
+			if (digit < 0 || digit > 9 || result < multmin) {
+				return NOT_INTEGER;
+			}
+			
+			result *= 10;
+			
+			if (result < limit + digit) {
+				return NOT_INTEGER;
+			}
+			
+			result -= digit;
+		}
+		
+		return result;
+	}
+	
+	// Returns the integer of the negated magnitude parsed from the string.
+	private static long integer(String value, int start, long negated) {
+		return (value.charAt(start) == '-') ? negated : -negated;
+	}
+	
+	// Returns 1 if the range [start, end) of the specified string is a 
+	// decimal number that Double#valueOf(String) accepts 
+	// ([+-]digits[.digits][(e|E)[+-]digits][dDfF], "NaN" or "Infinity"), -1 
+	// if it may be a hexadecimal floating-point literal and 0 if it is 
+	// invalid.
+	private static int decimal(String value, int start, int end) {
+		int i = start;
+		char c = value.charAt(i);
+		
+		if (c == '-' || c == '+') {
+			i++;
+		}
+		
+		if (value.regionMatches(i, "NaN", 0, end - i) && end - i == 3 
+				|| value.regionMatches(i, "Infinity", 0, end - i) && end - i == 8) {
+			return 1;
+		} else if (end - i > 1 && value.charAt(i) == '0' 
+				&& ((c = value.charAt(i + 1)) == 'x' || c == 'X')) {
+			return -1;
+		}
+		
+		int digits = 0;
+		
+		while (i < end && (c = value.charAt(i)) >= '0' && c <= '9') {
+			i++;
+			digits++;
+		}
+		
+		if (i < end && value.charAt(i) == '.') {
+			i++;
+			
+			while (i < end && (c = value.charAt(i)) >= '0' && c <= '9') {
+				i++;
+				digits++;
+			}
+		}
+		
+		if (digits == 0) {
+			return 0;
+		}
+		
+		if (i < end && ((c = value.charAt(i)) == 'e' || c == 'E')) {
+			if (++i < end && ((c = value.charAt(i)) == '-' || c == '+')) {
+				i++;
+			}
+			
+			int exponent = 0;
+			
+			while (i < end && (c = value.charAt(i)) >= '0' && c <= '9') {
+				i++;
+				exponent++;
+			}
+			
+			if (exponent == 0) {
+				return 0;
+			}
+		}
+		
+		if (i < end - 1) {
+			return 0;
+		} else if (i == end - 1) {
+			c = value.charAt(i);
+			return (c == 'd' || c == 'D' || c == 'f' || c == 'F') ? 1 : 0;
+		}
+		
+		return 1;
+	}
+	
+}
@@ -19,6 +19,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,40 +45,143 @@ public class Pipeline<T> implements Function<T, T> {
 	
 	private Map<Object, String> names = new HashMap<Object, String>();
 	
+	private Listener<T> listener;
+	
+	private volatile Compiled<T> compiled;
+	
 	/**
 	 * Starts pipeline with the specified stream object that flows through this 
 	 * pipeline.
+	 * This method runs the stages compiled by {@link #compile()}; the compiled 
+	 * stages are reused until this pipeline is modified.
 	 * 
 	 * @param io The stream object that flows through this pipeline.
 	 */
-	@SuppressWarnings("unchecked")
 	public T apply(T io) {
-		logger.debug("Pipeline began");
-		
-		try {
-			for (int i = 0; i < stages.size(); i++) {
-				Object stage = stages.get(i);
-				String name = names.get(stage);
-				logger.debug("Stage-" + i
-						+ ((name != null && !name.isEmpty()) ? " [" + name + "] " : " ")
-						+ "processing");
-				
-				if (stage instanceof Function) {
-					if ((io = ((Function<T, T>) stage).apply(io)) == null) {
-						return io;
+		Compiled<T> compiled = this.compiled;
+		
+		if (compiled == null) {
+			compiled = compile();
+			this.compiled = compiled;
+		}
+		
+		return compiled.apply(io);
+	}
+	
+	/**
+	 * Compiles the current processing stages into the immutable pipeline.
+	 * The stage names are resolved and the {@code Function} and 
+	 * {@code Predicate} stages are adapted to the single stage interface in 
+	 * compilation, so the compiled pipeline runs the stages without any 
+	 * lookup or type test. The modification to this pipeline after compilation 
+	 * does not affect the compiled pipeline.
+	 * 
+	 * @return The compiled pipeline.
+	 */
+	@SuppressWarnings("unchecked")
+	public Compiled<T> compile() {
+		Stage<T>[] stages = new Stage[this.stages.size()];
+		AsyncStage<T>[] asyncs = new AsyncStage[stages.length];
+		String[] names = new String[stages.length];
+		boolean[] predicates = new boolean[stages.length];
+		
+		for (int i = 0; i < stages.length; i++) {
+			final Object stage = this.stages.get(i);
+			names[i] = this.names.get(stage);
+			
+			if (stage instanceof AsyncStage) {
+				asyncs[i] = (AsyncStage<T>) stage;
+			}
+			
+			if (stage instanceof Function) {
+				stages[i] = new Stage<T>() {
+					
+					public T apply(T io) {
+						return ((Function<T, T>) stage).apply(io);
 					}
 					
-				} else if (stage instanceof Predicate) {
-					if (!((Predicate<T>) stage).apply(io)) {
-						return io;
+				};
+			} else {
+				predicates[i] = true;
+				stages[i] = new Stage<T>() {
+					
+					public T apply(T io) {
+						return (((Predicate<T>) stage).apply(io)) ? io : null;
 					}
+					
+				};
+			}
+		}
+		
+		if (listener != null) {
+			for (int i = 0; i < stages.length; i++) {
+				stages[i] = timed(stages[i], i, names[i], listener);
+				
+				if (asyncs[i] != null) {
+					asyncs[i] = timed(asyncs[i], i, names[i], listener);
 				}
 			}
-			
-			return io;
-		} finally {
-			logger.debug("Pipeline ended");
 		}
+		
+		return new Compiled<T>(logger, stages, asyncs, names, predicates, listener);
+	}
+	
+	private static <T> Stage<T> timed(final Stage<T> stage, final int index, 
+			final String name, final Listener<T> listener) {
+		return new Stage<T>() {
+			
+			public T apply(T io) {
+				long start = System.nanoTime();
+				
+				try {
+					return stage.apply(io);
+				} finally {
+					listener.stage(io, index, name, System.nanoTime() - start);
+				}
+			}
+			
+		};
+	}
+	
+	private static <T> AsyncStage<T> timed(final AsyncStage<T> stage, final int index, 
+			final String name, final Listener<T> listener) {
+		return new AsyncStage<T>() {
+			
+			public CompletionStage<T> applyAsync(final T io) {
+				final long start = System.nanoTime();
+				CompletionStage<T> result = stage.applyAsync(io);
+				
+				if (result == null) {
+					listener.stage(io, index, name, System.nanoTime() - start);
+					return null;
+				}
+				
+				return result.whenComplete(new BiConsumer<T, Throwable>() {
+					
+					public void accept(T t, Throwable throwable) {
+						listener.stage(io, index, name, System.nanoTime() - start);
+					}
+					
+				});
+			}
+			
+		};
+	}
+	
+	/**
+	 * Sets the {@link Listener} notified of the latency of each processing 
+	 * stage and the entire pipeline. The listener is opt-in; if the listener 
+	 * is not set (or set to <code>null</code>), the compiled pipeline does not 
+	 * measure any latency.
+	 * 
+	 * @param listener The {@code Listener} or <code>null</code> to disable 
+	 * the latency notification.
+	 * @return This {@code Pipeline} instance.
+	 */
+	public Pipeline<T> listener(Listener<T> listener) {
+		this.listener = listener;
+		compiled = null;
+		return this;
 	}
 	
 	/**
@@ -128,6 +234,7 @@ public class Pipeline<T> implements Function<T, T> {
 				"Parameter 'function' must not be [" + function + "]");
 		stages.add(index, function);
 		names.put(function, name);
+		compiled = null;
 		return this;
 	}
 	
@@ -181,6 +288,7 @@ public class Pipeline<T> implements Function<T, T> {
 				"Parameter 'predicate' must not be [" + predicate + "]");
 		stages.add(index, predicate);
 		names.put(predicate, name);
+		compiled = null;
 		return this;
 	}
 	
@@ -193,6 +301,7 @@ public class Pipeline<T> implements Function<T, T> {
 	public Pipeline<T> remove(int index) {
 		Object object = stages.remove(index);
 		names.remove(object);
+		compiled = null;
 		return this;
 	}
 	
@@ -222,4 +331,267 @@ public class Pipeline<T> implements Function<T, T> {
 		return builder.toString();
 	}
 	
+	/**
+	 * Processing stage of the compiled pipeline; {@code Function} and 
+	 * {@code Predicate} are adapted to this interface in compilation.
+	 * 
+	 * @param <T> The type of the stream object.
+	 */
+	interface Stage<T> {
+		
+		/**
+		 * Processes the specified stream object.
+		 * 
+		 * @param io The stream object.
+		 * @return The stream object passed to the next stage or 
+		 * <code>null</code> to stop the pipeline.
+		 */
+		T apply(T io);
+		
+	}
+	
+	/**
+	 * {@code AsyncStage} is the processing stage that completes 
+	 * asynchronously. A {@code Function} or {@code Predicate} stage that also 
+	 * implements this interface is run by {@code AsyncStage#applyAsync(Object)} 
+	 * in {@link Compiled#applyAsync(Object)}, so the pipeline thread does not 
+	 * wait for the completion of the stage; the subsequent stages are run in 
+	 * the thread that completes the stage. In {@link Compiled#apply(Object)}, 
+	 * the stage is run synchronously as the {@code Function} or 
+	 * {@code Predicate}.
+	 * 
+	 * @param <T> The type of the stream object.
+	 * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+	 */
+	public interface AsyncStage<T> {
+		
+		/**
+		 * Processes the specified stream object asynchronously.
+		 * 
+		 * @param io The stream object.
+		 * @return The {@code CompletionStage} completed with the stream object 
+		 * passed to the next stage or <code>null</code> to stop the pipeline.
+		 */
+		public CompletionStage<T> applyAsync(T io);
+		
+	}
+	
+	/**
+	 * {@code Listener} is notified of the latency of the processing stages 
+	 * and the entire pipeline in the pipeline thread. The implementation must 
+	 * be thread-safe and should return quickly.
+	 * 
+	 * @param <T> The type of the stream object.
+	 * @see Metrics
+	 * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+	 */
+	public interface Listener<T> {
+		
+		/**
+		 * Invoked when a processing stage is completed (or stopped the 
+		 * pipeline, or threw an exception).
+		 * 
+		 * @param io The stream object passed to the stage.
+		 * @param index The index of the stage.
+		 * @param name The name of the stage.
+		 * @param nanos The wall time of the stage in nanoseconds.
+		 */
+		public void stage(T io, int index, String name, long nanos);
+		
+		/**
+		 * Invoked when the pipeline is completed.
+		 * 
+		 * @param io The stream object passed to the pipeline.
+		 * @param nanos The wall time of the pipeline in nanoseconds.
+		 */
+		public void pipeline(T io, long nanos);
+		
+	}
+	
+	/**
+	 * Immutable pipeline compiled by {@link Pipeline#compile()}.
+	 * 
+	 * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+	 */
+	public static final class Compiled<T> implements Function<T, T> {
+		
+		private final Logger logger;
+		
+		private final Stage<T>[] stages;
+		
+		private final AsyncStage<T>[] asyncs;
+		
+		private final String[] names;
+		
+		private final boolean[] predicates;
+		
+		private final String[] labels;
+		
+		private final Listener<T> listener;
+		
+		private Compiled(Logger logger, Stage<T>[] stages, AsyncStage<T>[] asyncs, 
+				String[] names, boolean[] predicates, Listener<T> listener) {
+			this.logger = logger;
+			this.listener = listener;
+			this.stages = stages;
+			this.asyncs = asyncs;
+			this.names = names;
+			this.predicates = predicates;
+			this.labels = new String[stages.length];
+			
+			for (int i = 0; i < stages.length; i++) {
+				labels[i] = "Stage-" + i
+						+ ((names[i] != null && !names[i].isEmpty()) ? " [" + names[i] + "] " : " ")
+						+ "processing";
+			}
+		}
+		
+		/**
+		 * Starts pipeline with the specified stream object that flows through 
+		 * this pipeline.
+		 * The pipeline is stopped when a {@code Function} stage returns 
+		 * <code>null</code> (and this method returns <code>null</code>) or a 
+		 * {@code Predicate} stage returns <code>false</code> (and this method 
+		 * returns the stream object).
+		 * 
+		 * @param io The stream object that flows through this pipeline.
+		 */
+		public T apply(T io) {
+			boolean debug = logger.isDebugEnabled();
+			long start = (listener == null) ? 0L : System.nanoTime();
+			T in = io;
+			
+			if (debug) {
+				logger.debug("Pipeline began");
+			}
+			
+			try {
+				for (int i = 0; i < stages.length; i++) {
+					if (debug) {
+						logger.debug(labels[i]);
+					}
+					
+					T next = stages[i].apply(io);
+					
+					if (next == null) {
+						// Stopped by Predicate (the stream object is kept) or Function.
+						return (predicates[i]) ? io : null;
+					}
+					
+					io = next;
+				}
+				
+				return io;
+			} finally {
+				if (listener != null) {
+					listener.pipeline(in, System.nanoTime() - start);
+				}
+				
+				if (debug) {
+					logger.debug("Pipeline ended");
+				}
+			}
+		}
+		
+		/**
+		 * Starts pipeline with the specified stream object asynchronously.
+		 * The stages are run in the calling thread until an 
+		 * {@link AsyncStage} returns the incomplete {@code CompletionStage}; 
+		 * then this method returns and the subsequent stages are run in the 
+		 * thread that completes it. The returned {@code CompletionStage} is 
+		 * completed with the same result as {@link #apply(Object)}, or 
+		 * completed exceptionally if any stage fails after the first 
+		 * asynchronous stage.
+		 * 
+		 * @param io The stream object that flows through this pipeline.
+		 * @return The {@code CompletionStage} of the pipeline.
+		 */
+		public CompletionStage<T> applyAsync(final T io) {
+			final boolean debug = logger.isDebugEnabled();
+			final long start = (listener == null) ? 0L : System.nanoTime();
+			
+			if (debug) {
+				logger.debug("Pipeline began");
+			}
+			
+			CompletionStage<T> stage = proceed(io, 0, debug);
+			return (listener == null && !debug) ? stage : stage.whenComplete(new BiConsumer<T, Throwable>() {
+				
+				public void accept(T t, Throwable throwable) {
+					if (listener != null) {
+						listener.pipeline(io, System.nanoTime() - start);
+					}
+					
+					if (debug) {
+						logger.debug("Pipeline ended");
+					}
+				}
+				
+			});
+		}
+		
+		private CompletionStage<T> proceed(T io, int from, final boolean debug) {
+			for (int i = from; i < stages.length; i++) {
+				if (debug) {
+					logger.debug(labels[i]);
+				}
+				
+				if (asyncs[i] != null) {
+					CompletionStage<T> stage = asyncs[i].applyAsync(io);
+					// Stopped by Predicate (the stream object is kept) or Function.
+					final T stopped = (predicates[i]) ? io : null;
+					
+					if (stage == null) {
+						return CompletableFuture.completedFuture(stopped);
+					}
+					
+					final int next = i + 1;
+					return stage.thenCompose(new java.util.function.Function<T, CompletionStage<T>>() {
+						
+						public CompletionStage<T> apply(T io) {
+							return (io == null) ? CompletableFuture.completedFuture(stopped) 
+									: proceed(io, next, debug);
+						}
+						
+					});
+				}
+				
+				T next = stages[i].apply(io);
+				
+				if (next == null) {
+					return CompletableFuture.completedFuture((predicates[i]) ? io : null);
+				}
+				
+				io = next;
+			}
+			
+			return CompletableFuture.completedFuture(io);
+		}
+		
+		/**
+		 * Returns {@code String} representation of this compiled pipeline.
+		 * 
+		 * @return {@code String} representation of this compiled pipeline.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			
+			for (int i = 0; i < names.length; i++) {
+				builder.append("Stage-" + i);
+				
+				if (names[i] != null && !names[i].isEmpty()) {
+					builder.append(" [").append(names[i]).append("]");
+				}
+				
+				if (i < names.length - 1) {
+					builder.append(" -> ");
+				}
+			}
+			
+			return builder.toString();
+		}
+		
+	}
+	
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie of string prefixes.
+ * {@code Prefix} tests whether a string starts with any of the prefixes in a 
+ * single pass over the string instead of testing each prefix with 
+ * {@code String#startsWith(String)}. It is used for the ignore-routing 
+ * prefixes of {@link Routing} and the MIME media types of {@code @Accepts}.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Prefix {
+
+	private final char[] chars;
+	
+	private final Prefix[] children;
+	
+	private final boolean terminal;
+	
+	/**
+	 * Constructs a new {@code Prefix} of the specified prefixes.
+	 * 
+	 * @param prefixes The prefixes.
+	 */
+	Prefix(Collection<String> prefixes) {
+		this(prefixes, 0);
+	}
+	
+	// Builds the node at the index from the prefixes.
+	private Prefix(Collection<String> prefixes, int index) {
+		TreeMap<Character, Collection<String>> children = new TreeMap<Character, Collection<String>>();
+		boolean terminal = false;
+		
+		for (String prefix : prefixes) {
+			if (prefix.length() == index) {
+				terminal = true;
+				continue;
+			}
+			
+			Collection<String> child = children.get(prefix.charAt(index));
+			
+			if (child == null) {
+				child = new ArrayList<String>(1);
+				children.put(prefix.charAt(index), child);
+			}
+			
+			child.add(prefix);
+		}
+		
+		this.terminal = terminal;
+		this.chars = new char[children.size()];
+		this.children = new Prefix[children.size()];
+		int i = 0;
+		
+		for (Entry<Character, Collection<String>> child : children.entrySet()) {
+			this.chars[i] = child.getKey();
+			this.children[i++] = new Prefix(child.getValue(), index + 1);
+		}
+	}
+	
+	/**
+	 * Returns <code>true</code> if the specified string starts with any of 
+	 * the prefixes.
+	 * 
+	 * @param string The string to be tested.
+	 * @return <code>true</code> if the specified string starts with any of 
+	 * the prefixes.
+	 */
+	boolean matches(String string) {
+		Prefix prefix = this;
+		
+		for (int i = 0; !prefix.terminal; i++) {
+			if (i == string.length()) {
+				return false;
+			}
+			
+			int j = Arrays.binarySearch(prefix.chars, string.charAt(i));
+			
+			if (j < 0) {
+				return false;
+			}
+			
+			prefix = prefix.children[j];
+		}
+		
+		return true;
+	}
+	
+}
@@ -16,18 +16,13 @@
 package org.eiichiro.bootleg;
 
 import java.io.IOException;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.eiichiro.bootleg.annotation.Accepts;
-import org.eiichiro.bootleg.annotation.Allows;
-import org.eiichiro.bootleg.annotation.Source;
 import org.eiichiro.reverb.lang.UncheckedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,8 +39,30 @@ public class Receive implements Predicate<WebContext> {
 
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	
+	// Whether the request type constructs the parameters from the binding plan 
+	// (AbstractRequest that does not override Request#get(Type, List)).
+	private static final ClassValue<Boolean> planned = new ClassValue<Boolean>() {
+		
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			if (!AbstractRequest.class.isAssignableFrom(type)) {
+				return false;
+			}
+			
+			try {
+				return type.getMethod("get", Type.class, List.class).getDeclaringClass() 
+						== AbstractRequest.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+		
+	};
+	
 	/**
 	 * Validates HTTP request and constructs Web endpoint method parameters.
+	 * The annotations of the Web endpoint method are read once into 
+	 * {@code EndpointDescriptor} on the first request to the method.
 	 * This method processes the request as the following steps: 
 	 * <ol>
 	 * <li>Checks the requested HTTP method is allowable. If the Web endpoint 
@@ -58,7 +75,11 @@ public class Receive implements Predicate<WebContext> {
 	 * header by invoking {@code Configuration#requestType(String)} method with the 
 	 * content type.</li>
 	 * <li>Constructs Web endpoint method parameters by invoking {@code Request#get()}
-	 * methods and sets them to the current HTTP request processing context.</li>
+	 * methods and sets them to the current HTTP request processing context. 
+	 * The parameter types and sources are read from the binding plan of the 
+	 * Web endpoint method; if the {@code Request} overrides 
+	 * {@code Request#get(Type, List)}, the parameters are constructed through 
+	 * it.</li>
 	 * </ol>
 	 * 
 	 * @param context HTTP request processing context.
@@ -67,52 +88,33 @@ public class Receive implements Predicate<WebContext> {
 		Method method = context.method();
 		
 		try {
-			Verb verb = null;
+			Verb verb = Verb.of(context.request().getMethod());
 			
-			try {
-				verb = Verb.valueOf(context.request().getMethod());
-			} catch (Exception e) {
+			if (verb == null) {
 				throw new CannotAcceptRequestException(
 						HttpServletResponse.SC_METHOD_NOT_ALLOWED, 
 						"HTTP verb [" + context.request().getMethod() + "] is not supported");
 			}
 			
+			EndpointDescriptor descriptor = EndpointDescriptor.of(method);
+			
 			// Is the HTTP method allowable?
-			if (method.isAnnotationPresent(Allows.class)) {
-				Allows allows = method.getAnnotation(Allows.class);
-				List<Verb> verbs = Arrays.asList(allows.value());
-				
-				if (!verbs.contains(verb)) {
-					throw new CannotAcceptRequestException(
-							HttpServletResponse.SC_METHOD_NOT_ALLOWED, 
-							"Endpoint method [" 
-									+ method.getDeclaringClass().getName() + "#" + method.getName() 
-									+ "] is not capable of accepting [" + verb + "] method");
-				}
+			if (!descriptor.allows(verb)) {
+				throw new CannotAcceptRequestException(
+						HttpServletResponse.SC_METHOD_NOT_ALLOWED, 
+						"Endpoint method [" + descriptor 
+								+ "] is not capable of accepting [" + verb + "] method");
 			}
 			
 			// Is the MIME media type of the request acceptable?
-			Accepts accepts = method.getAnnotation(Accepts.class);
 			String type = context.request().getContentType();
 			
-			if (accepts != null) {
-				boolean acceptable = false;
-				
-				for (String value : accepts.value()) {
-					if (type.startsWith(value)) {
-						acceptable = true;
-						break;
-					}
-				}
-				
-				if (!acceptable) {
-					throw new CannotAcceptRequestException(
-							HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
-							"Endpoint method [" + method.getDeclaringClass().getName() 
-									+ "#" + method.getName()
-									+ "] is not capable of accepting [" + type
-									+ "] media type");
-				}
+			if (!descriptor.accepts(type)) {
+				throw new CannotAcceptRequestException(
+						HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+						"Endpoint method [" + descriptor
+								+ "] is not capable of accepting [" + type
+								+ "] media type");
 			}
 			
 			Class<? extends Request> requestType = context.configuration().requestTypes().get(type);
@@ -129,20 +131,21 @@ public class Receive implements Predicate<WebContext> {
 			request.from(context);
 			
 			// Parameter construction.
-			List<Object> parameters = new ArrayList<Object>();
-			Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-			Type[] parameterTypes = method.getGenericParameterTypes();
+			Binding binding = descriptor.binding();
+			List<Object> parameters = new ArrayList<Object>(binding.size());
 			
-			for (int i = 0; i < parameterTypes.length; i++) {
-				List<Annotation> sources = new ArrayList<Annotation>();
+			if (planned.get(requestType)) {
+				AbstractRequest abstractRequest = (AbstractRequest) request;
 				
-				for (Annotation annotation : parameterAnnotations[i]) {
-					if (annotation.annotationType().isAnnotationPresent(Source.class)) {
-						sources.add(annotation);
-					}
+				for (int i = 0; i < binding.size(); i++) {
+					parameters.add(abstractRequest.get(binding.get(i)));
 				}
 				
-				parameters.add(request.get(parameterTypes[i], sources));
+			} else {
+				for (int i = 0; i < binding.size(); i++) {
+					Binding.Parameter parameter = binding.get(i);
+					parameters.add(request.get(parameter.type, parameter.sources));
+				}
 			}
 			
 			context.parameters(parameters);
@@ -16,10 +16,10 @@
 package org.eiichiro.bootleg;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -27,7 +27,10 @@ import org.eiichiro.reverb.lang.UncheckedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.MapEvictionListener;
+import com.google.common.collect.MapMaker;
 
 /**
  * HTTP request processing pipeline stage to route the matched HTTP request to 
@@ -39,11 +42,90 @@ public class Route implements Predicate<WebContext> {
 
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	
-	private Map<String, Class<?>> endpoints;
+	private final AtomicReference<Table> table = new AtomicReference<Table>();
 	
-	private Routing routing;
+	private final int cache;
 	
-	private final Object lock = new Object();
+	private final AtomicLong hits = new AtomicLong();
+	
+	private final AtomicLong misses = new AtomicLong();
+	
+	private final AtomicLong evictions = new AtomicLong();
+	
+	/** Constructs a new {@code Route} without the resolution cache. */
+	public Route() {
+		this(0);
+	}
+	
+	/**
+	 * Constructs a new {@code Route} with the resolution cache bounded by the 
+	 * specified size.
+	 * The resolution cache holds the Web endpoint method and the path 
+	 * variables resolved for the pair of HTTP verb and URI (after the context 
+	 * path), so the request to the same URI skips the ignore-routing, URI 
+	 * template and URI convention resolution. When the cache exceeds the 
+	 * specified size, the least recently used entry is evicted. If the 
+	 * specified size is <code>0</code>, the resolution cache is disabled.
+	 * 
+	 * @param cache The maximum number of the cached resolutions.
+	 */
+	public Route(int cache) {
+		Preconditions.checkArgument(cache >= 0, 
+				"Parameter 'cache' must be greater than or equal to [0]");
+		this.cache = cache;
+	}
+	
+	/**
+	 * Replaces the URL routing configuration at runtime.
+	 * The specified {@link Routing} is compiled and published atomically with 
+	 * an empty resolution cache; the requests in flight complete with the 
+	 * previous routing configuration and the subsequent requests are routed 
+	 * with the specified one. The specified {@code Routing} cannot be modified 
+	 * after this method is invoked, so build a new {@code Routing} to update 
+	 * the routing configuration again.
+	 * 
+	 * @param routing The new URL routing configuration.
+	 */
+	public void routing(Routing routing) {
+		Preconditions.checkArgument(routing != null, 
+				"Parameter 'routing' must not be [" + routing + "]");
+		routing.compile();
+		Table current = null;
+		
+		do {
+			current = table.get();
+		} while (!table.compareAndSet(current, new Table(routing, 
+				(current == null) ? null : current.convention)));
+		
+		logger.info("URL routing configuration is replaced");
+	}
+	
+	/**
+	 * Returns the number of the requests resolved from the resolution cache.
+	 * 
+	 * @return The number of the requests resolved from the resolution cache.
+	 */
+	public long hits() {
+		return hits.get();
+	}
+	
+	/**
+	 * Returns the number of the requests not found in the resolution cache.
+	 * 
+	 * @return The number of the requests not found in the resolution cache.
+	 */
+	public long misses() {
+		return misses.get();
+	}
+	
+	/**
+	 * Returns the number of the resolutions evicted from the resolution cache.
+	 * 
+	 * @return The number of the resolutions evicted from the resolution cache.
+	 */
+	public long evictions() {
+		return evictions.get();
+	}
 	
 	/**
 	 * Identifies Web endpoint method to be invoked from the HTTP request's URI.
@@ -71,38 +153,29 @@ public class Route implements Predicate<WebContext> {
 	 * @param context HTTP request processing context.
 	 */
 	public boolean apply(WebContext context) {
-		Configuration configuration = context.configuration();
-		
-		if (endpoints == null) {
-			synchronized (lock) {
-				if (endpoints == null) {
-					endpoints = new HashMap<String, Class<?>>();
-					
-					for (Class<?> endpoint : configuration.endpoints()) {
-						String name = endpoint.getSimpleName().toLowerCase();
-						
-						if (endpoints.containsKey(name)) {
-							logger.warn("Web endpoint class name is duplicated: ["
-									+ endpoints.get(name) + "] is overwritten by ["
-									+ endpoint + "]");
-						}
-						
-						endpoints.put(name, endpoint);
-					}
-				}
-			}
-		}
+		Table table = this.table.get();
 		
-		if (routing == null) {
-			synchronized (lock) {
-				if (routing == null) {
-					routing = configuration.routing();
-				}
-			}
+		while (table == null || table.convention == null) {
+			table = compile(context.configuration(), table);
 		}
 		
 		HttpServletRequest request = context.request();
 		String uri = request.getRequestURI().substring((request.getContextPath()).length());
+		Routing routing = table.routing;
+		ConcurrentMap<Key, Resolution> cache = table.cache;
+		Key key = null;
+		
+		if (cache != null) {
+			key = new Key(request.getMethod(), uri);
+			Resolution resolution = cache.get(key);
+			
+			if (resolution != null) {
+				hits.incrementAndGet();
+				return resolved(context, resolution.method, resolution.variables);
+			}
+			
+			misses.incrementAndGet();
+		}
 		
 		try {
 			if (routing.ignores(uri)) {
@@ -111,31 +184,16 @@ public class Route implements Predicate<WebContext> {
 				return false;
 			}
 			
-			Verb verb = null;
+			Verb verb = Verb.of(request.getMethod());
 			
-			try {
-				verb = Verb.valueOf(request.getMethod());
-			} catch (Exception e) {
+			if (verb == null) {
 				logger.warn("HTTP verb [" + request.getMethod() + "] is not supported");
 			}
 			
-			List<Entry<URITemplate, Map<Verb, Method>>> route = routing.route(uri);
-			
-			for (Entry<URITemplate, Map<Verb, Method>> r : route) {
-				Method method = r.getValue().get(verb);
-				
-				if (method == null) {
-					method = r.getValue().get(null);
-				}
-				
-				if (method != null) {
-					context.method(method);
-					request.setAttribute(Request.PATH, r.getKey().variables(uri));
-					logger.debug("Web endpoint method is [" 
-							+ method.getDeclaringClass().getName() 
-							+ "#" + method.getName() + "]");
-					return true;
-				}
+			URITemplate.Match match = routing.route(uri, verb);
+			
+			if (match != null) {
+				return resolved(context, cache, key, routing.method(match, verb), match);
 			}
 			
 			if (uri.endsWith("/")) {
@@ -144,9 +202,9 @@ public class Route implements Predicate<WebContext> {
 				return false;
 			}
 			
-			String[] segments = uri.split("/");
+			int slash = uri.lastIndexOf('/');
 			
-			if (segments.length < 2) {
+			if (slash == -1) {
 				logger.debug("URI [" + request.getRequestURI() + "] is not correlated with any Web endpoint");
 				logger.debug("The requested URI pattern must end with " +
 						"[/.../<simple-name-of-the-endpoint-class>/<endpoint-method>] or " + 
@@ -155,30 +213,137 @@ public class Route implements Predicate<WebContext> {
 				return false;
 			}
 			
-			Class<?> endpoint = endpoints.get(segments[segments.length - 2].toLowerCase());
+			int start = (slash == 0) ? 0 : uri.lastIndexOf('/', slash - 1) + 1;
+			Convention.Table<Method> endpoint = table.convention.endpoint(uri, start, slash);
 			
 			if (endpoint == null) {
-				logger.warn("Web endpoint class is not found: Simple class name [" + segments[segments.length - 2] + "]");
+				logger.warn("Web endpoint class is not found: Simple class name [" + uri.substring(start, slash) + "]");
 				context.chain().doFilter(request, context.response());
 				return false;
 			}
 			
-			for (Method method : endpoint.getMethods()) {
-				if (method.getName().compareToIgnoreCase(segments[segments.length - 1]) == 0) {
-					context.method(method);
-					logger.debug("Web endpoint method is ["
-							+ method.getDeclaringClass().getName()
-							+ "#" + method.getName() + "]");
-					return true;
-				}
+			Method method = endpoint.get(uri, slash + 1, uri.length());
+			
+			if (method != null) {
+				return resolved(context, cache, key, method, null);
 			}
 			
-			logger.warn("Web endpoint method is not found: Method name [" + segments[segments.length - 1] + "]");
+			logger.warn("Web endpoint method is not found: Method name [" + uri.substring(slash + 1) + "]");
 			context.chain().doFilter(request, context.response());
 			return false;
 		} catch (Exception e) {
 			throw new UncheckedException(e);
 		}
 	}
+	
+	// Compiles the routing table on the first request (or after the routing 
+	// configuration is replaced before the first request).
+	private Table compile(Configuration configuration, Table current) {
+		Table table = new Table((current == null) ? configuration.routing().compile() 
+				: current.routing, new Convention(configuration.endpoints()));
+		return (this.table.compareAndSet(current, table)) ? table : this.table.get();
+	}
+	
+	private boolean resolved(WebContext context, ConcurrentMap<Key, Resolution> cache, 
+			Key key, Method method, Map<String, String> variables) {
+		if (key != null) {
+			cache.put(key, new Resolution(method, variables));
+		}
+		
+		return resolved(context, method, variables);
+	}
+	
+	private boolean resolved(WebContext context, Method method, Map<String, String> variables) {
+		context.method(method);
+		
+		if (variables != null) {
+			context.request().setAttribute(Request.PATH, variables);
+		}
+		
+		logger.debug("Web endpoint method is [" 
+				+ method.getDeclaringClass().getName() 
+				+ "#" + method.getName() + "]");
+		return true;
+	}
+	
+	/** Immutable routing table published atomically with its resolution cache. */
+	private final class Table {
+		
+		private final Routing routing;
+		
+		private final Convention convention;
+		
+		private final ConcurrentMap<Key, Resolution> cache;
+		
+		private Table(Routing routing, Convention convention) {
+			this.routing = routing;
+			this.convention = convention;
+			
+			if (Route.this.cache == 0) {
+				cache = null;
+			} else {
+				cache = new MapMaker().maximumSize(Route.this.cache).evictionListener(
+						new MapEvictionListener<Key, Resolution>() {
 
+							public void onEviction(Key key, Resolution resolution) {
+								evictions.incrementAndGet();
+							}
+							
+						}).makeMap();
+			}
+		}
+		
+	}
+	
+	/** Resolution cache key; the pair of HTTP verb and URI. */
+	private static final class Key {
+		
+		private final String verb;
+		
+		private final String uri;
+		
+		private final int hash;
+		
+		private Key(String verb, String uri) {
+			this.verb = verb;
+			this.uri = uri;
+			this.hash = 31 * ((verb == null) ? 0 : verb.hashCode()) + uri.hashCode();
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			
+			Key key = (Key) obj;
+			return hash == key.hash && uri.equals(key.uri) 
+					&& ((verb == null) ? key.verb == null : verb.equals(key.verb));
+		}
+		
+	}
+	
+	/** Resolved Web endpoint method and path variables. */
+	private static final class Resolution {
+		
+		private final Method method;
+		
+		private final Map<String, String> variables;
+		
+		private Resolution(Method method, Map<String, String> variables) {
+			this.method = method;
+			this.variables = variables;
+		}
+		
+	}
+	
 }
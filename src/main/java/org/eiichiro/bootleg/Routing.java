@@ -16,32 +16,63 @@
 package org.eiichiro.bootleg;
 
 import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.Set;
-import java.util.TreeMap;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * URL routing configuration of the current application.
+ * {@code Routing} is compiled by {@link Route} before the first request is 
+ * routed. {@link #compile()} builds the immutable snapshot of the routing 
+ * configuration (the routing trie of arrays and the immutable sets of the 
+ * ignore-routing patterns) that is read by the concurrent requests without 
+ * synchronization; the routing patterns and the ignore-routing patterns 
+ * cannot be added after that. To update the routing configuration at 
+ * runtime, build a new {@code Routing} and pass it to 
+ * {@code Route#routing(Routing)}. {@code Routing} is not thread-safe until 
+ * it is compiled.
  * 
  * @see Configuration
  * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
  */
 public class Routing {
 
-	private Map<String, URITemplate> templates = new HashMap<String, URITemplate>();
+	private final Map<String, URITemplate> templates = new HashMap<String, URITemplate>();
 	
-	private Map<URITemplate, Map<Verb, Method>> routes = new TreeMap<URITemplate, Map<Verb, Method>>();
+	// Web endpoint methods by HTTP verb in the order the templates are added.
+	private final Map<URITemplate, Map<Verb, Method>> routes = new LinkedHashMap<URITemplate, Map<Verb, Method>>();
 	
-	private Set<Pattern> ignores = new HashSet<Pattern>();
+	private final Set<String> ignoredURIs = new HashSet<String>();
+	
+	private final Set<String> ignoredExtensions = new HashSet<String>();
+	
+	private final List<String> ignoredSuffixes = new ArrayList<String>();
+	
+	private final List<String> ignoredPrefixes = new ArrayList<String>();
+	
+	private final List<Pattern> ignores = new ArrayList<Pattern>();
+	
+	private volatile Table compiled;
+	
+	// Snapshot of the routing configuration not compiled yet; discarded when 
+	// the routing configuration is modified.
+	private Table snapshot;
 	
 	/**
 	 * Adds URL routing pattern.
@@ -112,6 +143,8 @@ public class Routing {
 				"Parameter 'endpoint' must not be [" + endpoint + "]");
 		Preconditions.checkArgument(method != null, 
 				"Parameter 'method' must not be [" + method + "]");
+		Preconditions.checkState(compiled == null, 
+				"Routing has been compiled; build a new Routing to update the routing configuration");
 		
 		for (Method m : endpoint.getMethods()) {
 			if (m.getName().equals(method)) {
@@ -124,16 +157,15 @@ public class Routing {
 					templates.put(pattern, template);
 				}
 				
-				Map<Verb, Method> methods = null;
+				Map<Verb, Method> methods = routes.get(template);
 				
-				if (routes.containsKey(template)) {
-					methods = routes.get(template);
-				} else {
+				if (methods == null) {
 					methods = new HashMap<Verb, Method>();
 					routes.put(template, methods);
 				}
 				
 				methods.put(verb, m);
+				snapshot = null;
 				return;
 			}
 		}
@@ -142,11 +174,44 @@ public class Routing {
 				+ "] does not exist on Web endpoint [" + endpoint + "]");
 	}
 	
+	/**
+	 * Compiles this routing configuration into the immutable snapshot. After 
+	 * this method is invoked, the routing patterns and the ignore-routing 
+	 * patterns cannot be added.
+	 * 
+	 * @return This routing configuration.
+	 */
+	Routing compile() {
+		if (compiled == null) {
+			compiled = snapshot();
+		}
+		
+		return this;
+	}
+	
+	// The compiled snapshot or the snapshot of the current configuration.
+	private Table table() {
+		Table table = compiled;
+		return (table == null) ? snapshot() : table;
+	}
+	
+	private Table snapshot() {
+		if (snapshot == null) {
+			snapshot = new Table(this);
+		}
+		
+		return snapshot;
+	}
+	
 	/**
 	 * Adds ignore-routing patterns.
 	 * The requested URL that matches to the patterns is not handled by 
 	 * Bootleg. <code>*</code> (meta character) can be used in the pattern 
 	 * (e.g., <code>*.png</code>). 
+	 * The patterns are classified when they are added: the exact URIs, the 
+	 * extensions (e.g., <code>*.png</code>), the other suffixes (e.g., 
+	 * <code>*&#47;resource</code>) and the prefixes (e.g., 
+	 * <code>/static/*</code>) are tested without regular expression. 
 	 * <br><b>Note</b>: Ignore-routing patterns are in preference to routing 
 	 * patterns.
 	 * 
@@ -155,30 +220,139 @@ public class Routing {
 	public void ignore(String... patterns) {
 		Preconditions.checkArgument(patterns != null, 
 				"Parameter 'patterns' must not be [" + patterns + "]");
+		Preconditions.checkState(compiled == null, 
+				"Routing has been compiled; build a new Routing to update the routing configuration");
 		
 		for (String pattern : patterns) {
 			Preconditions.checkArgument(pattern != null && !pattern.isEmpty(), 
 					"Parameter 'patterns' must not include [null] or empty entry");
-			ignores.add(Pattern.compile(pattern.replaceAll("\\.",
-					Matcher.quoteReplacement("\\.")).replaceAll("\\*", ".*?")));
+			int wildcard = pattern.indexOf('*');
+			int last = pattern.lastIndexOf('*');
+			
+			if (wildcard == -1 && isLiteral(pattern)) {
+				ignoredURIs.add(pattern);
+			} else if (wildcard == 0 && last == 0 && isLiteral(pattern.substring(1))) {
+				String suffix = pattern.substring(1);
+				
+				if (suffix.lastIndexOf('.') == 0) {
+					ignoredExtensions.add(suffix.substring(1));
+				} else {
+					ignoredSuffixes.add(suffix);
+				}
+				
+			} else if (wildcard == pattern.length() - 1 && last == wildcard 
+					&& isLiteral(pattern.substring(0, wildcard))) {
+				ignoredPrefixes.add(pattern.substring(0, wildcard));
+			} else {
+				ignores.add(Pattern.compile(pattern.replaceAll("\\.",
+						Matcher.quoteReplacement("\\.")).replaceAll("\\*", ".*?")));
+			}
 		}
+		
+		snapshot = null;
 	}
 	
-	List<Entry<URITemplate, Map<Verb, Method>>> route(String uri) {
-		List<Entry<URITemplate, Map<Verb, Method>>> route = new ArrayList<Map.Entry<URITemplate,Map<Verb,Method>>>();
+	/**
+	 * Returns all the routes matched to the specified URI in the order of 
+	 * precedence.
+	 * 
+	 * @param uri The URI (after the context path).
+	 * @return The matched routes.
+	 */
+	List<Entry<URITemplate.Match, Map<Verb, Method>>> route(String uri) {
+		Table table = table();
+		Candidates candidates = new Candidates(uri, table.depth + 1);
 		
-		for (Entry<URITemplate, Map<Verb, Method>> r : routes.entrySet()) {
-			if (r.getKey().matches(uri)) {
-				route.add(r);
-			}
+		if (uri.startsWith("/")) {
+			table.root.collect(uri, 1, 0, candidates);
 		}
 		
-		return route;
+		if (candidates.result.size() > 1) {
+			Collections.sort(candidates.result, PRECEDENCE);
+		}
+		
+		return candidates.result;
+	}
+	
+	/**
+	 * Routes the specified URI to the route of the highest precedence that has 
+	 * the Web endpoint method for the specified HTTP verb (see 
+	 * {@link #method(URITemplate.Match, Verb)}).
+	 * The routing trie is walked with the per-thread scratch arrays and the 
+	 * {@code URITemplate.Match} is built only for the selected route, so the 
+	 * routing of the literal and path variable segments allocates no object 
+	 * but the returned match. The templates that have wildcard or compound 
+	 * segments are matched with the regular expression.
+	 * 
+	 * @param uri The URI (after the context path).
+	 * @param verb The HTTP verb.
+	 * @return The match of the selected route or <code>null</code> if no route 
+	 * is matched.
+	 */
+	URITemplate.Match route(String uri, Verb verb) {
+		if (!uri.startsWith("/")) {
+			return null;
+		}
+		
+		Table table = table();
+		Selection selection = SELECTION.get();
+		selection.reset(verb, table.depth + 1);
+		
+		try {
+			table.root.collect(uri, 1, 0, selection);
+			
+			if (selection.leaf == null) {
+				return null;
+			}
+			
+			return (selection.match == null) 
+					? selection.leaf.match(uri, selection.selected) : selection.match;
+		} finally {
+			selection.clear();
+		}
+	}
+	
+	/**
+	 * Returns the Web endpoint method of the matched route for the specified 
+	 * HTTP verb. If the route does not have the method for the verb, the 
+	 * method for GET (if the verb is HEAD) or the method for any HTTP verb is 
+	 * returned.
+	 * 
+	 * @param match The match returned by {@link #route(String, Verb)}.
+	 * @param verb The HTTP verb.
+	 * @return The Web endpoint method.
+	 */
+	Method method(URITemplate.Match match, Verb verb) {
+		return table().routes.get(match.template()).method(verb);
 	}
 	
 	boolean ignores(String uri) {
-		for (Pattern ignore : ignores) {
-			if (ignore.matcher(uri).matches()) {
+		Table table = table();
+		
+		if (!table.ignoredExtensions.isEmpty()) {
+			int dot = uri.lastIndexOf('.');
+			
+			if (dot != -1 && table.ignoredExtensions.contains(uri.substring(dot + 1))) {
+				return true;
+			}
+		}
+		
+		if (table.ignoredPrefixes != null && table.ignoredPrefixes.matches(uri)) {
+			return true;
+		}
+		
+		if (table.ignoredURIs.contains(uri)) {
+			return true;
+		}
+		
+		for (int i = 0; i < table.ignoredSuffixes.length; i++) {
+			if (uri.endsWith(table.ignoredSuffixes[i])) {
+				return true;
+			}
+		}
+		
+		for (int i = 0; i < table.ignores.length; i++) {
+			if (table.ignores[i].matcher(uri).matches()) {
 				return true;
 			}
 		}
@@ -186,4 +360,569 @@ public class Routing {
 		return false;
 	}
 	
+	private static boolean isLiteral(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			if ("\\^$|?*+()[]{}".indexOf(pattern.charAt(i)) != -1) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	// Most path segments first, then first-specified.
+	private static final Comparator<Entry<URITemplate.Match, Map<Verb, Method>>> PRECEDENCE 
+			= new Comparator<Entry<URITemplate.Match, Map<Verb, Method>>>() {
+
+		public int compare(Entry<URITemplate.Match, Map<Verb, Method>> o1, 
+				Entry<URITemplate.Match, Map<Verb, Method>> o2) {
+			Leaf l1 = ((Candidate) o1).leaf;
+			Leaf l2 = ((Candidate) o2).leaf;
+			
+			if (l1.segments != l2.segments) {
+				return (l1.segments > l2.segments) ? -1 : 1;
+			}
+			
+			return (l1.order < l2.order) ? -1 : ((l1.order == l2.order) ? 0 : 1);
+		}
+		
+	};
+	
+	/** Immutable snapshot of the routing configuration. */
+	private static final class Table {
+		
+		private final Node root;
+		
+		private final int depth;
+		
+		private final Map<URITemplate, Leaf> routes;
+		
+		private final Set<String> ignoredURIs;
+		
+		private final Set<String> ignoredExtensions;
+		
+		private final String[] ignoredSuffixes;
+		
+		private final Prefix ignoredPrefixes;
+		
+		private final Pattern[] ignores;
+		
+		private Table(Routing routing) {
+			ImmutableMap.Builder<URITemplate, Leaf> routes = ImmutableMap.builder();
+			List<Leaf> leaves = new ArrayList<Leaf>(routing.routes.size());
+			int depth = 0;
+			
+			for (Entry<URITemplate, Map<Verb, Method>> route : routing.routes.entrySet()) {
+				Leaf leaf = new Leaf(route.getKey(), leaves.size(), route.getValue());
+				routes.put(route.getKey(), leaf);
+				leaves.add(leaf);
+				depth = Math.max(depth, leaf.path.length);
+			}
+			
+			this.root = new Node(leaves, 0, null);
+			this.depth = depth;
+			this.routes = routes.build();
+			this.ignoredURIs = ImmutableSet.copyOf(routing.ignoredURIs);
+			this.ignoredExtensions = ImmutableSet.copyOf(routing.ignoredExtensions);
+			this.ignoredSuffixes = routing.ignoredSuffixes.toArray(new String[routing.ignoredSuffixes.size()]);
+			this.ignoredPrefixes = (routing.ignoredPrefixes.isEmpty()) 
+					? null : new Prefix(routing.ignoredPrefixes);
+			this.ignores = routing.ignores.toArray(new Pattern[routing.ignores.size()]);
+		}
+		
+	}
+	
+	/** URI template registered to the routing trie. */
+	private static final class Leaf {
+		
+		private final URITemplate template;
+		
+		private final int order;
+		
+		private final int segments;
+		
+		private final String[] path;
+		
+		// Path segment indexes of the template variables.
+		private final int[] variables;
+		
+		// Depth of the first wildcard or compound segment (or the length of 
+		// the path if there is none); the leaf is matched with the regular 
+		// expression from this depth.
+		private final int wildcard;
+		
+		private final Methods methods;
+		
+		private Leaf(URITemplate template, int order, Map<Verb, Method> methods) {
+			String pattern = template.toString();
+			this.template = template;
+			this.order = order;
+			this.segments = pattern.split("/").length;
+			this.path = pattern.substring(1).split("/", -1);
+			this.methods = new Methods(methods);
+			List<Integer> variables = new ArrayList<Integer>();
+			int depth = 0;
+			
+			for (; depth < path.length; depth++) {
+				if (Node.isVariable(path[depth])) {
+					variables.add(depth);
+				} else if (!isLiteral(path[depth])) {
+					break;
+				}
+			}
+			
+			this.wildcard = depth;
+			this.variables = new int[variables.size()];
+			
+			for (int i = 0; i < variables.size(); i++) {
+				this.variables[i] = variables.get(i);
+			}
+		}
+		
+		// Constraint of the path variable segment at the specified depth.
+		private URITemplate.Constraint constraint(int depth) {
+			for (int i = 0; i < variables.length; i++) {
+				if (variables[i] == depth) {
+					return template.constraint(i);
+				}
+			}
+			
+			return null;
+		}
+		
+		private URITemplate.Match match(String uri, int[] starts) {
+			int[] bounds = new int[variables.length * 2];
+			
+			for (int i = 0; i < variables.length; i++) {
+				int segment = variables[i];
+				bounds[i * 2] = starts[segment];
+				bounds[i * 2 + 1] = (segment + 1 < path.length) ? starts[segment + 1] - 1 : uri.length();
+			}
+			
+			return new URITemplate.Match(template, uri, bounds);
+		}
+		
+		private Method method(Verb verb) {
+			Method method = methods.get(verb);
+			
+			if (method == null && verb == Verb.HEAD) {
+				method = methods.get(Verb.GET);
+			}
+			
+			return (method == null) ? methods.get(null) : method;
+		}
+		
+		// Most path segments first, then first-specified.
+		private boolean precedes(Leaf leaf) {
+			return segments > leaf.segments || (segments == leaf.segments && order < leaf.order);
+		}
+		
+	}
+	
+	/**
+	 * Immutable Web endpoint methods of the URI template dispatched by HTTP 
+	 * verb. The methods are held in {@code EnumMap} and the method for any 
+	 * HTTP verb is held with <code>null</code> key.
+	 */
+	private static final class Methods extends AbstractMap<Verb, Method> {
+		
+		private final Map<Verb, Method> verbs = new EnumMap<Verb, Method>(Verb.class);
+		
+		private final Method any;
+		
+		private Methods(Map<Verb, Method> methods) {
+			for (Entry<Verb, Method> method : methods.entrySet()) {
+				if (method.getKey() != null) {
+					verbs.put(method.getKey(), method.getValue());
+				}
+			}
+			
+			any = methods.get(null);
+		}
+		
+		@Override
+		public Method get(Object key) {
+			return (key == null) ? any : verbs.get(key);
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return (key == null) ? any != null : verbs.containsKey(key);
+		}
+		
+		@Override
+		public Set<Entry<Verb, Method>> entrySet() {
+			Map<Verb, Method> methods = new LinkedHashMap<Verb, Method>(verbs);
+			
+			if (any != null) {
+				methods.put(null, any);
+			}
+			
+			return Collections.unmodifiableMap(methods).entrySet();
+		}
+		
+	}
+	
+	/** Matched route; ordered by the precedence of the URI template. */
+	private static final class Candidate extends SimpleImmutableEntry<URITemplate.Match, Map<Verb, Method>> {
+		
+		private static final long serialVersionUID = -4129461728264537717L;
+		
+		private final transient Leaf leaf;
+		
+		private Candidate(Leaf leaf, URITemplate.Match match) {
+			super(match, leaf.methods);
+			this.leaf = leaf;
+		}
+		
+	}
+	
+	/** Receiver of the leaves reached in the routing trie. */
+	private abstract static class Collector {
+		
+		// Start indexes of the path segments walked.
+		int[] starts;
+		
+		/**
+		 * Returns <code>true</code> if the specified leaf should be collected; 
+		 * the leaf that has wildcard or compound segments is matched with 
+		 * {@code URITemplate#match(String)} only if this method returns 
+		 * <code>true</code>.
+		 */
+		abstract boolean accepts(Leaf leaf);
+		
+		/**
+		 * Collects the specified leaf. The match is <code>null</code> if the 
+		 * leaf is reached through the trie; the bounds of the path variables 
+		 * are held in {@link #starts}.
+		 */
+		abstract void collect(Leaf leaf, URITemplate.Match match);
+		
+	}
+	
+	/** Collects all the matched routes. */
+	private static final class Candidates extends Collector {
+		
+		private final String uri;
+		
+		private final List<Entry<URITemplate.Match, Map<Verb, Method>>> result 
+				= new ArrayList<Entry<URITemplate.Match, Map<Verb, Method>>>(2);
+		
+		private Candidates(String uri, int depth) {
+			this.uri = uri;
+			this.starts = new int[depth];
+		}
+		
+		@Override
+		boolean accepts(Leaf leaf) {
+			// The first (shortest) path variables are taken if the leaf is 
+			// reached through the multiple spans.
+			for (int i = 0; i < result.size(); i++) {
+				if (((Candidate) result.get(i)).leaf == leaf) {
+					return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		@Override
+		void collect(Leaf leaf, URITemplate.Match match) {
+			result.add(new Candidate(leaf, (match == null) ? leaf.match(uri, starts) : match));
+		}
+		
+	}
+	
+	private static final ThreadLocal<Selection> SELECTION = new ThreadLocal<Selection>() {
+		
+		@Override
+		protected Selection initialValue() {
+			return new Selection();
+		}
+		
+	};
+	
+	/**
+	 * Selects the route of the highest precedence that has the Web endpoint 
+	 * method for the HTTP verb; reused per thread.
+	 */
+	private static final class Selection extends Collector {
+		
+		private Verb verb;
+		
+		private Leaf leaf;
+		
+		private URITemplate.Match match;
+		
+		// Start indexes of the path segments of the selected leaf.
+		private int[] selected;
+		
+		private void reset(Verb verb, int depth) {
+			this.verb = verb;
+			
+			if (starts == null || starts.length < depth) {
+				starts = new int[depth];
+				selected = new int[depth];
+			}
+		}
+		
+		private void clear() {
+			verb = null;
+			leaf = null;
+			match = null;
+		}
+		
+		@Override
+		boolean accepts(Leaf leaf) {
+			return (this.leaf == null || leaf.precedes(this.leaf)) && leaf.method(verb) != null;
+		}
+		
+		@Override
+		void collect(Leaf leaf, URITemplate.Match match) {
+			this.leaf = leaf;
+			this.match = match;
+			
+			if (match == null) {
+				System.arraycopy(starts, 0, selected, 0, starts.length);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Routing trie node keyed by URI path segment.
+	 * Literal segments are resolved with a hash lookup and single path 
+	 * variable segments (<code>{variable}</code>) match one or more segments, 
+	 * the shorter first, as the path variable of {@link URITemplate} matches 
+	 * the characters including '/'. Constrained path variable segments (e.g. 
+	 * <code>{id:int}</code>) match one segment and are tested with the 
+	 * constraint, so the templates under the unsatisfied constraint are pruned 
+	 * without matching. The templates that have wildcard or compound segments 
+	 * from the depth of this node are kept as wildcard leaves and tested with 
+	 * {@code URITemplate#matches(String)}.
+	 */
+	private static final class Node {
+		
+		// Open addressing hash table of the literal segments.
+		private final String[] literals;
+		
+		private final Node[] children;
+		
+		private final Node variable;
+		
+		private final Node[] constrained;
+		
+		private final URITemplate.Constraint constraint;
+		
+		private final Leaf[] wildcards;
+		
+		private final Leaf[] leaves;
+		
+		// Builds the node at the depth from the leaves in the order added.
+		private Node(List<Leaf> leaves, int depth, URITemplate.Constraint constraint) {
+			Map<String, List<Leaf>> literals = new LinkedHashMap<String, List<Leaf>>();
+			List<Leaf> variables = new ArrayList<Leaf>();
+			Map<String, List<Leaf>> constrained = new LinkedHashMap<String, List<Leaf>>();
+			Map<String, URITemplate.Constraint> constraints = new HashMap<String, URITemplate.Constraint>();
+			List<Leaf> wildcards = new ArrayList<Leaf>();
+			List<Leaf> terminals = new ArrayList<Leaf>();
+			
+			for (Leaf leaf : leaves) {
+				if (depth == leaf.path.length) {
+					terminals.add(leaf);
+				} else if (depth == leaf.wildcard) {
+					wildcards.add(leaf);
+				} else if (isLiteral(leaf.path[depth])) {
+					group(literals, leaf.path[depth], leaf);
+				} else if (leaf.constraint(depth) == null) {
+					variables.add(leaf);
+				} else {
+					URITemplate.Constraint c = leaf.constraint(depth);
+					
+					if (!constraints.containsKey(c.spec)) {
+						constraints.put(c.spec, c);
+					}
+					
+					group(constrained, c.spec, leaf);
+				}
+			}
+			
+			if (literals.isEmpty()) {
+				this.literals = null;
+				this.children = null;
+			} else {
+				int size = 4;
+				
+				while (size < literals.size() * 2) {
+					size *= 2;
+				}
+				
+				this.literals = new String[size];
+				this.children = new Node[size];
+				
+				for (Entry<String, List<Leaf>> literal : literals.entrySet()) {
+					String segment = literal.getKey();
+					int i = hash(segment, 0, segment.length()) & (size - 1);
+					
+					while (this.literals[i] != null) {
+						i = (i + 1) & (size - 1);
+					}
+					
+					this.literals[i] = segment;
+					this.children[i] = new Node(literal.getValue(), depth + 1, null);
+				}
+			}
+			
+			this.variable = (variables.isEmpty()) ? null : new Node(variables, depth + 1, null);
+			
+			if (constrained.isEmpty()) {
+				this.constrained = null;
+			} else {
+				this.constrained = new Node[constrained.size()];
+				int i = 0;
+				
+				for (Entry<String, List<Leaf>> c : constrained.entrySet()) {
+					this.constrained[i++] = new Node(c.getValue(), depth + 1, constraints.get(c.getKey()));
+				}
+			}
+			
+			this.constraint = constraint;
+			this.wildcards = (wildcards.isEmpty()) ? null : wildcards.toArray(new Leaf[wildcards.size()]);
+			this.leaves = (terminals.isEmpty()) ? null : terminals.toArray(new Leaf[terminals.size()]);
+		}
+		
+		private static void group(Map<String, List<Leaf>> groups, String key, Leaf leaf) {
+			List<Leaf> group = groups.get(key);
+			
+			if (group == null) {
+				group = new ArrayList<Leaf>(1);
+				groups.put(key, group);
+			}
+			
+			group.add(leaf);
+		}
+		
+		private void collect(String uri, int start, int depth, Collector collector) {
+			if (wildcards != null) {
+				for (int i = 0; i < wildcards.length; i++) {
+					Leaf leaf = wildcards[i];
+					
+					if (collector.accepts(leaf)) {
+						URITemplate.Match match = leaf.template.match(uri);
+						
+						if (match != null) {
+							collector.collect(leaf, match);
+						}
+					}
+				}
+			}
+			
+			if (start > uri.length()) {
+				if (leaves != null) {
+					for (int i = 0; i < leaves.length; i++) {
+						if (collector.accepts(leaves[i])) {
+							collector.collect(leaves[i], null);
+						}
+					}
+				}
+				
+				return;
+			}
+			
+			if (literals == null && variable == null && constrained == null) {
+				return;
+			}
+			
+			int end = uri.indexOf('/', start);
+			
+			if (end == -1) {
+				end = uri.length();
+			}
+			
+			collector.starts[depth] = start;
+			
+			if (literals != null) {
+				Node node = literal(uri, start, end);
+				
+				if (node != null) {
+					node.collect(uri, end + 1, depth + 1, collector);
+				}
+			}
+			
+			if (variable != null) {
+				for (int span = end; ; span = uri.indexOf('/', span + 1)) {
+					if (span == -1) {
+						span = uri.length();
+					}
+					
+					if (span > start) {
+						variable.collect(uri, span + 1, depth + 1, collector);
+					}
+					
+					if (span == uri.length()) {
+						break;
+					}
+				}
+			}
+			
+			if (constrained != null && end > start) {
+				for (int i = 0; i < constrained.length; i++) {
+					Node node = constrained[i];
+					
+					if (node.constraint.matches(uri, start, end)) {
+						node.collect(uri, end + 1, depth + 1, collector);
+					}
+				}
+			}
+		}
+		
+		// Looks up the child node of the segment without substring.
+		private Node literal(String uri, int start, int end) {
+			int mask = literals.length - 1;
+			int length = end - start;
+			
+			for (int i = hash(uri, start, end) & mask; ; i = (i + 1) & mask) {
+				String literal = literals[i];
+				
+				if (literal == null) {
+					return null;
+				} else if (literal.length() == length && uri.regionMatches(start, literal, 0, length)) {
+					return children[i];
+				}
+			}
+		}
+		
+		private static int hash(String string, int start, int end) {
+			int hash = 0;
+			
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + string.charAt(i);
+			}
+			
+			return hash ^ (hash >>> 16);
+		}
+		
+		// Single path variable; the braces of the constraint are nested.
+		private static boolean isVariable(String segment) {
+			if (segment.length() < 3 || segment.charAt(0) != '{') {
+				return false;
+			}
+			
+			int depth = 0;
+			
+			for (int i = 0; i < segment.length(); i++) {
+				char c = segment.charAt(i);
+				
+				if (c == '{') {
+					depth++;
+				} else if (c == '}' && --depth == 0) {
+					return i == segment.length() - 1;
+				}
+			}
+			
+			return false;
+		}
+		
+	}
+	
 }
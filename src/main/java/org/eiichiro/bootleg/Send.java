@@ -16,9 +16,15 @@
 package org.eiichiro.bootleg;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.eiichiro.bootleg.annotation.Generates;
 import org.eiichiro.bootleg.annotation.Negotiated;
@@ -61,34 +67,83 @@ public class Send implements Predicate<WebContext> {
 	 * Web endpoint invocation result, then sends the HTTP response to the 
 	 * client by invoking {@code Response#to(WebContext)} method with the 
 	 * current Web context.</li>
+	 * <li>If the HTTP request is HEAD, this class sends the HTTP response as 
+	 * the response to GET request (including the {@code Response} returned by 
+	 * the Web endpoint method) to the {@code HttpServletResponse} that 
+	 * discards the body, so only the same HTTP response header as GET is 
+	 * sent.</li>
 	 * </ol>
+	 * If the Web endpoint invocation result (or the entity of 
+	 * {@link AbstractResponse} result) is a lazy sequence ({@link Cursor}, 
+	 * {@code Iterator} or {@code java.util.stream.BaseStream}), it is set to 
+	 * the {@code Response} as {@code Cursor} so that the elements are streamed one by one, and the 
+	 * {@code Cursor} is closed after the response is sent (or failed to be 
+	 * sent).
 	 * 
 	 * @param context HTTP request processing context.
 	 */
 	public boolean apply(WebContext context) {
+		if (Verb.of(context.request().getMethod()) != Verb.HEAD) {
+			return send(context);
+		}
+		
+		// The response to HEAD request is sent as the response to GET request 
+		// but the body is discarded, so the headers (e.g. the MIME media type 
+		// and the charset the Response sets) are the same.
+		HeadResponse response = new HeadResponse(context.response());
+		boolean sent = send(new WebContext(context, response));
+		
+		try {
+			response.complete();
+		} catch (IOException e) {
+			throw new UncheckedException(e);
+		}
+		
+		logger.debug("HTTP response body is not sent to HEAD request");
+		return sent;
+	}
+	
+	private boolean send(WebContext context) {
 		Object result = context.result();
 		
 		if (result instanceof Response) {
 			Response response = (Response) result;
-			response.to(context);
-			return true;
+			Cursor<?> cursor = null;
+			
+			if (response instanceof AbstractResponse) {
+				AbstractResponse abstractResponse = (AbstractResponse) response;
+				cursor = cursor(abstractResponse.entity);
+				
+				if (cursor != null) {
+					abstractResponse.entity(cursor);
+				}
+			}
+			
+			try {
+				response.to(context);
+				return true;
+			} finally {
+				close(cursor);
+			}
+		}
+		
+		Cursor<?> cursor = cursor(result);
+		
+		if (cursor != null) {
+			result = cursor;
 		}
 		
 		try {
-			Method method = context.method();
+			EndpointDescriptor descriptor = EndpointDescriptor.of(context.method());
 			String contentType = "";
-			Generates generates = method.getAnnotation(Generates.class);
-			Negotiated negotiated = method.getAnnotation(Negotiated.class);
-			
-			if (generates != null) {
-				logger.debug("Web endpoint ["
-						+ method.getDeclaringClass().getName() + "#" + method.getName()
-						+ "] is qualified by [" + generates + "]");
-				contentType = generates.value();
-			} else if (negotiated != null) {
-				logger.debug("Web endpoint ["
-						+ method.getDeclaringClass().getName() + "#" + method.getName()
-						+ "] is qualified by [" + negotiated + "]");
+			
+			if (descriptor.generates() != null) {
+				logger.debug("Web endpoint [" + descriptor + "] is qualified by [@"
+						+ Generates.class.getName() + "(" + descriptor.generates() + ")]");
+				contentType = descriptor.generates();
+			} else if (descriptor.negotiated()) {
+				logger.debug("Web endpoint [" + descriptor + "] is qualified by [@" 
+						+ Negotiated.class.getName() + "]");
 				String header = context.request().getHeader("Accept");
 				
 				if (header != null) {
@@ -98,7 +153,9 @@ public class Send implements Predicate<WebContext> {
 			}
 			
 			logger.debug("MIME media type is [" + contentType + "]");
-			Class<? extends Response> responseType = context.configuration().responseTypes().get(contentType);
+			Class<? extends Response> responseType = (descriptor.generates() != null) 
+					? descriptor.responseType(context.configuration()) 
+					: context.configuration().responseTypes().get(contentType);
 			
 			if (responseType == null) {
 				throw new CannotSendResponseException(
@@ -125,7 +182,149 @@ public class Send implements Predicate<WebContext> {
 			
 		} catch (Exception e) {
 			throw new UncheckedException(e);
+		} finally {
+			close(cursor);
+		}
+	}
+	
+	private void close(Cursor<?> cursor) {
+		if (cursor == null) {
+			return;
+		}
+		
+		try {
+			cursor.close();
+		} catch (IOException e) {
+			logger.warn("Failed to close cursor [" + cursor + "]", e);
 		}
 	}
+	
+	/**
+	 * Returns the {@link Cursor} of the specified Web endpoint invocation 
+	 * result if it is a lazy sequence. The {@code Cursor} closes the result if 
+	 * it is {@code AutoCloseable} (e.g. {@code java.util.stream.Stream}).
+	 * 
+	 * @param result Web endpoint invocation result.
+	 * @return The {@code Cursor} or <code>null</code> if the result is not a 
+	 * lazy sequence.
+	 */
+	static Cursor<?> cursor(final Object result) {
+		final Iterator<?> iterator;
+		
+		if (result instanceof Cursor<?>) {
+			return (Cursor<?>) result;
+		} else if (result instanceof Iterator<?>) {
+			iterator = (Iterator<?>) result;
+		} else if (result instanceof BaseStream<?, ?>) {
+			iterator = ((BaseStream<?, ?>) result).iterator();
+		} else {
+			return null;
+		}
+		
+		return new Cursor<Object>() {
 
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			public Object next() {
+				return iterator.next();
+			}
+
+			public void close() throws IOException {
+				if (result instanceof AutoCloseable) {
+					try {
+						((AutoCloseable) result).close();
+					} catch (IOException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new IOException(e);
+					}
+				}
+			}
+			
+			@Override
+			public String toString() {
+				return result.toString();
+			}
+			
+		};
+	}
+	
+	/**
+	 * {@code HttpServletResponse} to HEAD request that discards the body. 
+	 * <code>Content-Length</code> header is set to the length of the 
+	 * discarded body unless it has been set or the response has been 
+	 * committed (as <code>HttpServlet#doHead</code> does).
+	 */
+	private static final class HeadResponse extends HttpServletResponseWrapper {
+		
+		private final ServletOutputStream stream = new ServletOutputStream() {
+			
+			@Override
+			public void write(int b) {
+				length++;
+			}
+			
+			@Override
+			public void write(byte[] b, int off, int len) {
+				length += len;
+			}
+			
+			// Commits the response as the flush of the response to GET request.
+			@Override
+			public void flush() throws IOException {
+				if (!completing) {
+					flushBuffer();
+				}
+			}
+			
+		};
+		
+		private PrintWriter writer;
+		
+		private long length;
+		
+		private boolean contentLength;
+		
+		private boolean completing;
+		
+		private HeadResponse(HttpServletResponse response) {
+			super(response);
+		}
+		
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return stream;
+		}
+		
+		@Override
+		public PrintWriter getWriter() throws UnsupportedEncodingException {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+			}
+			
+			return writer;
+		}
+		
+		@Override
+		public void setContentLength(int len) {
+			super.setContentLength(len);
+			contentLength = true;
+		}
+		
+		private void complete() throws IOException {
+			completing = true;
+			
+			if (writer != null) {
+				writer.flush();
+			}
+			
+			if (!contentLength && !isCommitted()) {
+				super.setContentLength((int) length);
+			}
+		}
+		
+	}
+	
 }
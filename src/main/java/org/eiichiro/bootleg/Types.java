@@ -65,6 +65,7 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConvertUtilsBean;
 import org.apache.commons.beanutils.Converter;
 import org.apache.commons.beanutils.converters.DateConverter;
 import org.apache.commons.lang.ClassUtils;
@@ -88,6 +89,21 @@ public abstract class Types {
 	
 	private static Map<Class<?>, Collection<?>> empties = new ConcurrentHashMap<Class<?>, Collection<?>>();
 	
+	// The standard converters of commons-beanutils registered to ConvertUtils 
+	// for the core value types when this class is initialized.
+	private static Map<Class<?>, Converter> standards = new ConcurrentHashMap<Class<?>, Converter>();
+	
+	// Classification of each raw type, computed once per type from the sets 
+	// and maps above (invalidated when a core value type is added).
+	private static ClassValue<Classification> classifications = new ClassValue<Classification>() {
+
+		@Override
+		protected Classification computeValue(Class<?> type) {
+			return new Classification(type);
+		}
+		
+	};
+	
 	static {
 		// Built-in types.
 		builtins.add(WebContext.class);
@@ -157,6 +173,19 @@ public abstract class Types {
 		values.add(URL.class);
 		values.add(Object.class);
 		
+		// Standard converters (compared by identity).
+		ConvertUtilsBean convertUtils = new ConvertUtilsBean();
+		
+		for (Class<?> value : values) {
+			Converter registered = ConvertUtils.lookup(value);
+			Converter standard = convertUtils.lookup(value);
+			
+			if (registered != null && standard != null 
+					&& registered.getClass() == standard.getClass()) {
+				standards.put(value, registered);
+			}
+		}
+		
 		// XXX: :-/
 		DateConverter converter = new DateConverter();
 		converter.setUseLocaleFormat(true);
@@ -210,7 +239,7 @@ public abstract class Types {
 	 */
 	public static boolean isBuiltinType(Type type) {
 		Class<?> rawType = getRawType(type);
-		return (rawType == null) ? false : builtins.contains(rawType);
+		return (rawType == null) ? false : classifications.get(rawType).builtin;
 	}
 	
 	/**
@@ -223,9 +252,7 @@ public abstract class Types {
 	 */
 	public static boolean isCollection(Type type) {
 		Class<?> rawType = getRawType(type);
-		return (rawType == null) ? false
-				: (rawType.equals(Collection.class) 
-						|| ClassUtils.getAllInterfaces(rawType).contains(Collection.class));
+		return (rawType == null) ? false : classifications.get(rawType).collection;
 	}
 
 	/**
@@ -269,7 +296,7 @@ public abstract class Types {
 	 */
 	public static boolean isSupportedCollection(Type type) {
 		Class<?> rawType = getRawType(type);
-		return (rawType == null) ? false : collections.contains(rawType);
+		return (rawType == null) ? false : classifications.get(rawType).supportedCollection;
 	}
 
 	/**
@@ -347,8 +374,7 @@ public abstract class Types {
 	 * interface type.
 	 */
 	public static Class<?> getDefaultImplementationType(Type type) {
-		Class<?> clazz = getRawType(type);
-		return (clazz.isInterface()) ? implementations.get(clazz) : clazz;
+		return classifications.get(getRawType(type)).implementation;
 	}
 	
 	/**
@@ -358,7 +384,7 @@ public abstract class Types {
 	 * @return The empty instance of the specified collection type.
 	 */
 	public static Collection<?> getEmptyCollection(Type type) {
-		return empties.get(getRawType(type));
+		return classifications.get(getRawType(type)).empty;
 	}
 	
 	/**
@@ -403,7 +429,7 @@ public abstract class Types {
 	 */
 	public static boolean isCoreValueType(Type type) {
 		Class<?> rawType = getRawType(type);
-		return (rawType == null) ? false : values.contains(rawType);
+		return (rawType == null) ? false : classifications.get(rawType).coreValue;
 	}
 	
 	/**
@@ -422,28 +448,64 @@ public abstract class Types {
 	 */
 	public static boolean isUserDefinedValueType(Type type) {
 		Class<?> rawType = getRawType(type);
-		
-		if (rawType == null) {
-			return false;
-		}
-		
-		for (Constructor<?> constructor : rawType.getConstructors()) {
-			Class<?>[] parameterTypes = constructor.getParameterTypes();
-			
-			if (parameterTypes.length == 1
-					&& parameterTypes[0].equals(String.class)) {
-				return true;
-			}
-		}
-		
-		for (Method method : rawType.getMethods()) {
-			if (method.getName().equals("valueOf")
-					&& Modifier.isStatic(method.getModifiers())) {
-				return true;
-			}
-		}
-		
-		return false;
+		return (rawType == null) ? false : classifications.get(rawType).userDefinedValue;
+	}
+	
+	/**
+	 * Returns the public constructor that takes one String.class parameter of 
+	 * the specified user-defined value type.
+	 * 
+	 * @param type The user-defined value type.
+	 * @return The public constructor that takes one String.class parameter or 
+	 * <code>null</code> if the specified type does not have it.
+	 */
+	static Constructor<?> getStringConstructor(Class<?> type) {
+		return classifications.get(type).constructor;
+	}
+	
+	/**
+	 * Returns the public static <code>valueOf(String.class)</code> method of 
+	 * the specified user-defined value type.
+	 * 
+	 * @param type The user-defined value type.
+	 * @return The public static <code>valueOf(String.class)</code> method or 
+	 * <code>null</code> if the specified type does not have it.
+	 */
+	static Method getValueOfMethod(Class<?> type) {
+		return classifications.get(type).valueOf;
+	}
+	
+	/**
+	 * Returns the specialized {@code String} parser of the specified core 
+	 * value type.
+	 * 
+	 * @param type The core value type.
+	 * @return The specialized parser or <code>null</code> if the specified 
+	 * type does not have it.
+	 */
+	static Parser getParser(Class<?> type) {
+		Classification classification = classifications.get(type);
+		return (classification.parser != null 
+				&& classification.standard == ConvertUtils.lookup(type)) ? classification.parser : null;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the converter registered to 
+	 * {@code ConvertUtils} for the specified core value type is the standard 
+	 * converter of commons-beanutils. The specialized parser and the JSON 
+	 * writer produce the same result as the standard converter without it, so 
+	 * they are used only if this method returns <code>true</code>. 
+	 * The registered converter is looked up on every invocation, so the 
+	 * converter registered by {@code ConvertUtils#register(Converter, Class)} 
+	 * directly is honored as well.
+	 * 
+	 * @param type The core value type.
+	 * @return <code>true</code> if the converter registered for the specified 
+	 * type is the standard one.
+	 */
+	public static boolean hasStandardConverter(Class<?> type) {
+		Converter standard = classifications.get(type).standard;
+		return standard != null && standard == ConvertUtils.lookup(type);
 	}
 	
 	/**
@@ -455,6 +517,7 @@ public abstract class Types {
 	public static void addCoreValueType(Class<?> clazz, Converter converter) {
 		ConvertUtils.register(converter, clazz);
 		values.add(clazz);
+		classifications.remove(clazz);
 	}
 	
 	/**
@@ -490,4 +553,76 @@ public abstract class Types {
 		}
 	}
 	
+	private static final class Classification {
+		
+		private final boolean builtin;
+		
+		private final boolean collection;
+		
+		private final boolean supportedCollection;
+		
+		private final boolean coreValue;
+		
+		private final boolean userDefinedValue;
+		
+		private final Class<?> implementation;
+		
+		private final Collection<?> empty;
+		
+		private final Constructor<?> constructor;
+		
+		private final Method valueOf;
+		
+		// The standard converter of the type, compared with the registered 
+		// one by identity on every lookup.
+		private final Converter standard;
+		
+		private final Parser parser;
+		
+		private Classification(Class<?> type) {
+			builtin = builtins.contains(type);
+			collection = type.equals(Collection.class) 
+					|| ClassUtils.getAllInterfaces(type).contains(Collection.class);
+			supportedCollection = collections.contains(type);
+			coreValue = values.contains(type);
+			implementation = (type.isInterface()) ? implementations.get(type) : type;
+			empty = empties.get(type);
+			Constructor<?> constructor = null;
+			
+			for (Constructor<?> c : type.getConstructors()) {
+				Class<?>[] parameterTypes = c.getParameterTypes();
+				
+				if (parameterTypes.length == 1
+						&& parameterTypes[0].equals(String.class)) {
+					constructor = c;
+					break;
+				}
+			}
+			
+			boolean factory = false;
+			Method valueOf = null;
+			
+			for (Method method : type.getMethods()) {
+				if (method.getName().equals("valueOf")
+						&& Modifier.isStatic(method.getModifiers())) {
+					factory = true;
+					Class<?>[] parameterTypes = method.getParameterTypes();
+					
+					if (parameterTypes.length == 1 
+							&& parameterTypes[0].equals(String.class)) {
+						valueOf = method;
+						break;
+					}
+				}
+			}
+			
+			this.constructor = constructor;
+			this.valueOf = valueOf;
+			userDefinedValue = (constructor != null || factory);
+			standard = standards.get(type);
+			parser = (coreValue && standard != null) ? Parser.of(type) : null;
+		}
+		
+	}
+	
 }
@@ -15,10 +15,14 @@
  */
 package org.eiichiro.bootleg;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +31,22 @@ import com.google.common.base.Preconditions;
 /**
  * URI template to route the matched HTTP request to the corresponding Web 
  * endpoint method.
+ * A path variable (<code>{variable}</code>) matches one or more characters 
+ * including '/' (the shortest match is preferred), and <code>*</code> (meta 
+ * character) matches any characters including '/'.
+ * A path variable can be constrained by the type or the regular expression 
+ * following the variable name and ':'. The constrained path variable matches 
+ * the characters within one path segment (split by '/'). The built-in types 
+ * are <code>int</code>, <code>long</code> and <code>uuid</code>, and the other 
+ * constraint is regarded as the regular expression applied to one path 
+ * segment: 
+ * <pre>
+ * /user/{id:int}
+ * /session/{id:uuid}
+ * /article/{slug:[a-z-]+}
+ * </pre>
+ * The value of the typed path variable is converted to {@code Integer}, 
+ * {@code Long} or {@code UUID} once it is matched.
  * 
  * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
  */
@@ -36,7 +56,12 @@ public class URITemplate implements Comparable<URITemplate> {
 	
 	private final Pattern pattern;
 	
-	private List<String> variables = new ArrayList<String>();
+	private final List<String> variables;
+	
+	private final Constraint[] constraints;
+	
+	// Capturing group indexes of the template variables.
+	private final int[] groups;
 	
 	/**
 	 * Constructs a new {@code URITemplate} with the specified URI pattern.
@@ -48,61 +73,100 @@ public class URITemplate implements Comparable<URITemplate> {
 				"Parameter 'pattern' must not be [" + pattern + "]");
 		Preconditions.checkArgument(pattern.startsWith("/"), 
 				"Parameter 'pattern' must start with [/]");
-		char c = '{';
 		int start = 0;
-		String substring = "";
+		StringBuilder regex = new StringBuilder();
 		List<String> variables = new ArrayList<String>();
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		List<Integer> groups = new ArrayList<Integer>();
+		int group = 1;
 		
 		for (int i = 0; i < pattern.length(); i++) {
-			if (pattern.charAt(i) == c) {
-				substring = pattern.substring(start, i);
-				
-				if (substring.contains("{") || substring.contains("}")) {
-					throw new IllegalArgumentException("Broken braces pair: " +
-							"Path variable must be enclosed by braces pair " +
-							"({variable}) [" + pattern + "]");
+			char c = pattern.charAt(i);
+			
+			if (c == '}') {
+				throw new IllegalArgumentException("Broken braces pair: " +
+						"Path variable must be enclosed by braces pair " +
+						"({variable}) [" + pattern + "]");
+			} else if (c != '{') {
+				continue;
+			}
+			
+			if (i > 0 && i == start && !variables.isEmpty()) {
+				throw new IllegalArgumentException(
+						"Variables in compound path seqment must be separated by " +
+						"at least one literal");
+			}
+			
+			// Braces in the constraint (e.g. '{code:[0-9]{3}}') are nested.
+			int depth = 1;
+			int end = i + 1;
+			
+			for (; end < pattern.length() && depth > 0; end++) {
+				if (pattern.charAt(end) == '{') {
+					depth++;
+				} else if (pattern.charAt(end) == '}') {
+					depth--;
 				}
-				
-				if (c == '}') {
-					if (substring.length() == 0) {
-						throw new IllegalArgumentException(
-								"Path variable name must not be empty [" + pattern + "]");
-					} else if (!substring.matches("^\\p{Alnum}[\\p{Alnum}|.|_|-]*")) {
-						throw new IllegalArgumentException(
-								"Path variable name must match to " +
-								"'\\p{Alnum}[\\p{Alnum}|.|_|-]*' [" + pattern + "]");
-					} else if (variables.contains(substring)) {
-						throw new IllegalArgumentException(
-								"Duplicated path variable [" + pattern + "]");
-					}
-					
-					variables.add(substring);
+			}
+			
+			if (depth > 0) {
+				throw new IllegalArgumentException("Broken braces pair: " +
+						"Path variable must be enclosed by braces pair " +
+						"({variable}) [" + pattern + "]");
+			}
+			
+			String variable = pattern.substring(i + 1, end - 1);
+			int colon = variable.indexOf(':');
+			String name = (colon == -1) ? variable : variable.substring(0, colon);
+			
+			if (name.length() == 0) {
+				throw new IllegalArgumentException(
+						"Path variable name must not be empty [" + pattern + "]");
+			} else if (!name.matches("^\\p{Alnum}[\\p{Alnum}|.|_|-]*")) {
+				throw new IllegalArgumentException(
+						"Path variable name must match to " +
+						"'\\p{Alnum}[\\p{Alnum}|.|_|-]*' [" + pattern + "]");
+			} else if (variables.contains(name)) {
+				throw new IllegalArgumentException(
+						"Duplicated path variable [" + pattern + "]");
+			}
+			
+			Constraint constraint = null;
+			
+			if (colon != -1) {
+				if (colon == variable.length() - 1) {
+					throw new IllegalArgumentException(
+							"Path variable constraint must not be empty [" + pattern + "]");
 				}
 				
-				start = i + 1;
-				c = (c == '{') ? '}' : '{';
+				constraint = Constraint.of(variable.substring(colon + 1));
 			}
+			
+			regex.append(literal(pattern.substring(start, i))).append('(')
+					.append((constraint == null) ? ".+?" : constraint.regex)
+					.append(')');
+			variables.add(name);
+			constraints.add(constraint);
+			groups.add(group);
+			group += (constraint == null) ? 1 : constraint.groups + 1;
+			start = end;
+			i = end - 1;
 		}
 		
-		substring = pattern.substring(start);
-		
-		if (substring.contains("{") || substring.contains("}") || c == '}') {
-			throw new IllegalArgumentException("Broken braces pair: " +
-					"Path variable must be enclosed by braces pair " +
-					"({variable}) [" + pattern + "]");
-		}
-		
-		if (pattern.contains("}{")) {
-			throw new IllegalArgumentException(
-					"Variables in compound path seqment must be separated by " +
-					"at least one literal");
-		}
-		
-		this.pattern = Pattern.compile(pattern
-				.replaceAll("\\.", Matcher.quoteReplacement("\\."))
-				.replaceAll("\\{.+?\\}", "(.+?)").replaceAll("\\*", ".*?"));
+		regex.append(literal(pattern.substring(start)));
+		this.pattern = Pattern.compile(regex.toString());
 		this.template = pattern;
 		this.variables = variables;
+		this.constraints = constraints.toArray(new Constraint[constraints.size()]);
+		this.groups = new int[groups.size()];
+		
+		for (int i = 0; i < groups.size(); i++) {
+			this.groups[i] = groups.get(i);
+		}
+	}
+	
+	private static String literal(String pattern) {
+		return pattern.replace(".", "\\.").replace("*", ".*?");
 	}
 	
 	/**
@@ -114,7 +178,53 @@ public class URITemplate implements Comparable<URITemplate> {
 	 * specified actual URI.
 	 */
 	public boolean matches(String uri) {
-		return pattern.matcher(uri).matches();
+		return match(uri) != null;
+	}
+	
+	/**
+	 * Matches this URI template to the specified actual URI and returns the 
+	 * match result that holds the template variables captured in the match 
+	 * pass. The variable values are not extracted from the URI until they are 
+	 * read from the match result. If this URI template is not matched to the 
+	 * specified actual URI, this method returns <code>null</code>.
+	 * 
+	 * @param uri The actual URI to be matched.
+	 * @return The match result or <code>null</code> if this URI template is 
+	 * not matched to the specified actual URI.
+	 */
+	public Match match(String uri) {
+		Matcher matcher = pattern.matcher(uri);
+		
+		if (!matcher.matches()) {
+			return null;
+		}
+		
+		int[] bounds = new int[variables.size() * 2];
+		
+		for (int i = 0; i < variables.size(); i++) {
+			int start = matcher.start(groups[i]);
+			int end = matcher.end(groups[i]);
+			
+			if (constraints[i] != null && !constraints[i].matches(uri, start, end)) {
+				return null;
+			}
+			
+			bounds[i * 2] = start;
+			bounds[i * 2 + 1] = end;
+		}
+		
+		return new Match(this, uri, bounds);
+	}
+	
+	/**
+	 * Returns the constraint of the template variable at the specified index.
+	 * 
+	 * @param index The index of the template variable.
+	 * @return The constraint of the template variable or <code>null</code> if 
+	 * the variable is not constrained.
+	 */
+	Constraint constraint(int index) {
+		return constraints[index];
 	}
 	
 	/**
@@ -135,16 +245,18 @@ public class URITemplate implements Comparable<URITemplate> {
 	 * specified actual URI.
 	 */
 	public Map<String, String> variables(String uri) {
-		Map<String, String> variables = new HashMap<String, String>();
-		Matcher matcher = pattern.matcher(uri);
-		
-		if (matcher.matches()) {
-			for (int i = 0; i < matcher.groupCount(); i++) {
-				variables.put(this.variables.get(i), matcher.group(i + 1));
-			}
-		}
-		
-		return variables;
+		Match match = match(uri);
+		return (match == null) ? new HashMap<String, String>() : new HashMap<String, String>(match);
+	}
+	
+	/**
+	 * Returns the URI pattern this template is constructed from.
+	 * 
+	 * @return The URI pattern this template is constructed from.
+	 */
+	@Override
+	public String toString() {
+		return template;
 	}
 	
 	/**
@@ -174,4 +286,289 @@ public class URITemplate implements Comparable<URITemplate> {
 		return (difference == 0) ? 1 : difference * -1;
 	}
 	
+	/**
+	 * {@code Match} is the result of matching {@link URITemplate} to an actual 
+	 * URI. This class holds the character bounds of each template variable in 
+	 * the URI and exposes the variables as read-only name and value pairs.
+	 * 
+	 * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+	 */
+	public static final class Match extends AbstractMap<String, String> {
+		
+		private final URITemplate template;
+		
+		private final String uri;
+		
+		private final int[] bounds;
+		
+		private String[] values;
+		
+		private Object[] converted;
+		
+		Match(URITemplate template, String uri, int[] bounds) {
+			this.template = template;
+			this.uri = uri;
+			this.bounds = bounds;
+		}
+		
+		/**
+		 * Returns the URI template matched.
+		 * 
+		 * @return The URI template matched.
+		 */
+		public URITemplate template() {
+			return template;
+		}
+		
+		/**
+		 * Returns the value of the template variable at the specified index.
+		 * 
+		 * @param index The index of the template variable.
+		 * @return The value of the template variable at the specified index.
+		 */
+		public String get(int index) {
+			if (values == null) {
+				values = new String[template.variables.size()];
+			}
+			
+			String value = values[index];
+			
+			if (value == null) {
+				value = uri.substring(bounds[index * 2], bounds[index * 2 + 1]);
+				values[index] = value;
+			}
+			
+			return value;
+		}
+		
+		/**
+		 * Returns the value of the template variable at the specified index 
+		 * converted to the type of the variable constraint.
+		 * 
+		 * @param index The index of the template variable.
+		 * @return The converted value of the template variable at the 
+		 * specified index.
+		 */
+		public Object value(int index) {
+			Constraint constraint = template.constraints[index];
+			
+			if (constraint == null) {
+				return get(index);
+			}
+			
+			if (converted == null) {
+				converted = new Object[template.variables.size()];
+			}
+			
+			Object value = converted[index];
+			
+			if (value == null) {
+				value = constraint.convert(get(index));
+				converted[index] = value;
+			}
+			
+			return value;
+		}
+		
+		/**
+		 * Returns the value of the specified template variable converted to 
+		 * the type of the variable constraint.
+		 * 
+		 * @param name The name of the template variable.
+		 * @return The converted value of the template variable or 
+		 * <code>null</code> if the variable is not found.
+		 */
+		public Object value(String name) {
+			int index = template.variables.indexOf(name);
+			return (index == -1) ? null : value(index);
+		}
+		
+		@Override
+		public String get(Object key) {
+			int index = template.variables.indexOf(key);
+			return (index == -1) ? null : get(index);
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return template.variables.contains(key);
+		}
+		
+		@Override
+		public int size() {
+			return template.variables.size();
+		}
+		
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			Map<String, String> variables = new LinkedHashMap<String, String>();
+			
+			for (int i = 0; i < template.variables.size(); i++) {
+				variables.put(template.variables.get(i), get(i));
+			}
+			
+			return Collections.unmodifiableMap(variables).entrySet();
+		}
+		
+	}
+	
+	/** Constraint of the template variable applied to one path segment. */
+	abstract static class Constraint {
+		
+		private static final Constraint INT = new Constraint("int", "-?[0-9]+", 0) {
+			
+			@Override
+			boolean matches(String uri, int start, int end) {
+				return integer(uri, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			}
+			
+			@Override
+			Object convert(String value) {
+				return Integer.valueOf(value);
+			}
+			
+		};
+		
+		private static final Constraint LONG = new Constraint("long", "-?[0-9]+", 0) {
+			
+			@Override
+			boolean matches(String uri, int start, int end) {
+				return integer(uri, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+			}
+			
+			@Override
+			Object convert(String value) {
+				return Long.valueOf(value);
+			}
+			
+		};
+		
+		private static final Constraint UUID = new Constraint("uuid", 
+				"[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}", 0) {
+			
+			@Override
+			boolean matches(String uri, int start, int end) {
+				if (end - start != 36) {
+					return false;
+				}
+				
+				for (int i = 0; i < 36; i++) {
+					char c = uri.charAt(start + i);
+					
+					if (i == 8 || i == 13 || i == 18 || i == 23) {
+						if (c != '-') {
+							return false;
+						}
+					} else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') 
+							|| (c >= 'A' && c <= 'F'))) {
+						return false;
+					}
+				}
+				
+				return true;
+			}
+			
+			@Override
+			Object convert(String value) {
+				return java.util.UUID.fromString(value);
+			}
+			
+		};
+		
+		/** The constraint as specified in the URI template. */
+		final String spec;
+		
+		/** The regular expression embedded in the URI template pattern. */
+		final String regex;
+		
+		/** The number of the capturing groups in the regular expression. */
+		final int groups;
+		
+		private Constraint(String spec, String regex, int groups) {
+			this.spec = spec;
+			this.regex = regex;
+			this.groups = groups;
+		}
+		
+		static Constraint of(String spec) {
+			if (spec.equals(INT.spec)) {
+				return INT;
+			} else if (spec.equals(LONG.spec)) {
+				return LONG;
+			} else if (spec.equals(UUID.spec)) {
+				return UUID;
+			}
+			
+			final Pattern pattern = Pattern.compile(spec);
+			return new Constraint(spec, spec, pattern.matcher("").groupCount()) {
+				
+				@Override
+				boolean matches(String uri, int start, int end) {
+					int slash = uri.indexOf('/', start);
+					return (slash == -1 || slash >= end) 
+							&& pattern.matcher(uri).region(start, end).matches();
+				}
+				
+				@Override
+				Object convert(String value) {
+					return value;
+				}
+				
+			};
+		}
+		
+		/**
+		 * Returns <code>true</code> if the characters of the specified URI in 
+		 * the range <code>[start, end)</code> satisfy this constraint.
+		 * 
+		 * @param uri The actual URI.
+		 * @param start The start index of the path variable.
+		 * @param end The end index of the path variable.
+		 * @return <code>true</code> if the path variable satisfies this 
+		 * constraint.
+		 */
+		abstract boolean matches(String uri, int start, int end);
+		
+		/**
+		 * Converts the matched path variable to the type of this constraint.
+		 * 
+		 * @param value The matched path variable.
+		 * @return The converted path variable.
+		 */
+		abstract Object convert(String value);
+		
+		// Decimal integer within [min, max], parsed without exception.
+		private static boolean integer(String uri, int start, int end, long min, long max) {
+			boolean negative = start < end && uri.charAt(start) == '-';
+			int i = (negative) ? start + 1 : start;
+			
+			if (i == end) {
+				return false;
+			}
+			
+			long limit = (negative) ? min : -max;
+			long multmin = limit / 10;
+			long result = 0;
+			
+			for (; i < end; i++) {
+				int digit = uri.charAt(i) - '0';
+				
+				if (digit < 0 || digit > 9 || result < multmin) {
+					return false;
+				}
+				
+				result *= 10;
+				
+				if (result < limit + digit) {
+					return false;
+				}
+				
+				result -= digit;
+			}
+			
+			return true;
+		}
+		
+	}
+	
 }
@@ -32,6 +32,40 @@ public enum Verb {
 	PUT, 
 	
 	/** HTTP DELETE. */
-	DELETE
+	DELETE, 
+	
+	/** HTTP HEAD. */
+	HEAD, 
+	
+	/** HTTP OPTIONS. */
+	OPTIONS, 
+	
+	/** HTTP PATCH. */
+	PATCH;
+	
+	private static final Verb[] verbs = values();
+	
+	/**
+	 * Returns the {@code Verb} of the specified HTTP method name.
+	 * Unlike {@code Verb#valueOf(String)}, this method does not throw any 
+	 * exception for the unsupported HTTP method.
+	 * 
+	 * @param method HTTP method name (case-sensitive).
+	 * @return The {@code Verb} of the specified HTTP method name or 
+	 * <code>null</code> if the HTTP method is not supported.
+	 */
+	public static Verb of(String method) {
+		if (method == null) {
+			return null;
+		}
+		
+		for (Verb verb : verbs) {
+			if (verb.name().equals(method)) {
+				return verb;
+			}
+		}
+		
+		return null;
+	}
 	
 }
@@ -37,6 +37,8 @@ public class WebContext extends HashMap<Object, Object> {
 
 	private final Configuration configuration;
 	
+	private final ServletContext application;
+	
 	private final HttpServletRequest request;
 	
 	private final HttpServletResponse response;
@@ -61,12 +63,45 @@ public class WebContext extends HashMap<Object, Object> {
 	 */
 	public WebContext(Configuration configuration, HttpServletRequest request,
 			HttpServletResponse response, FilterChain chain) {
+		this(configuration, null, request, response, chain);
+	}
+	
+	/**
+	 * Constructs a new {@code WebContext} instance with the specified 
+	 * {@code ServletContext}, {@code HttpServletRequest}, 
+	 * {@code HttpServletResponse} and {@code FilterChain}.
+	 * 
+	 * @param configuration The current {@link Configuration}.
+	 * @param application The current {@code ServletContext}.
+	 * @param request The current {@code HttpServletRequest}.
+	 * @param response The current {@code HttpServletResponse}.
+	 * @param chain The current {@code FilterChain}.
+	 */
+	public WebContext(Configuration configuration, ServletContext application, 
+			HttpServletRequest request, HttpServletResponse response, FilterChain chain) {
 		this.configuration = configuration;
+		this.application = application;
 		this.request = request;
 		this.response = response;
 		this.chain = chain;
 	}
 	
+	/**
+	 * Constructs a new {@code WebContext} instance that is the same as the 
+	 * specified {@code WebContext} except for the {@code HttpServletResponse}.
+	 * 
+	 * @param context The {@code WebContext} to be copied.
+	 * @param response The {@code HttpServletResponse} of the new 
+	 * {@code WebContext}.
+	 */
+	WebContext(WebContext context, HttpServletResponse response) {
+		this(context.configuration, context.application, context.request, response, context.chain);
+		putAll(context);
+		method = context.method;
+		parameters = context.parameters;
+		result = context.result;
+	}
+	
 	/**
 	 * Returns the {@link Configuration} which Bootleg is running on.
 	 * 
@@ -96,6 +131,8 @@ public class WebContext extends HashMap<Object, Object> {
 	
 	/**
 	 * Returns the current {@code HttpSession}.
+	 * If the current request has no session, this method creates a new one. 
+	 * Use {@link #session(boolean)} to get the session without creating.
 	 * 
 	 * @return The current {@code HttpSession}.
 	 */
@@ -103,13 +140,34 @@ public class WebContext extends HashMap<Object, Object> {
 		return request().getSession();
 	}
 	
+	/**
+	 * Returns the current {@code HttpSession}.
+	 * 
+	 * @param create <code>true</code> to create a new session if the current 
+	 * request has no session.
+	 * @return The current {@code HttpSession} or <code>null</code> if the 
+	 * current request has no session and <code>create</code> is 
+	 * <code>false</code>.
+	 */
+	public HttpSession session(boolean create) {
+		return request().getSession(create);
+	}
+	
 	/**
 	 * Returns the current {@code ServletContext}.
+	 * The {@code ServletContext} is resolved without creating the session 
+	 * unless this context has been constructed without the 
+	 * {@code ServletContext} and the current request has no session.
 	 * 
 	 * @return The current {@code ServletContext}.
 	 */
 	public ServletContext application() {
-		return session().getServletContext();
+		if (application != null) {
+			return application;
+		}
+		
+		HttpSession session = session(false);
+		return (session == null) ? session().getServletContext() : session.getServletContext();
 	}
 	
 	/**
@@ -15,14 +15,19 @@
  */
 package org.eiichiro.bootleg.json;
 
-import java.lang.reflect.Field;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.commons.lang.ClassUtils;
 import org.eiichiro.bootleg.AbstractRequest;
+import org.eiichiro.bootleg.Binder;
 import org.eiichiro.bootleg.Types;
 import org.eiichiro.bootleg.WebContext;
 import org.eiichiro.reverb.lang.UncheckedException;
@@ -33,6 +38,9 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * {@code JSONRequest} is a JSON-based implementation of {@code Request}.
@@ -43,22 +51,47 @@ import com.google.gson.JsonPrimitive;
  */
 public class JSONRequest extends AbstractRequest {
 
+	private static final Function<Method, Projection> PROJECTION = new Function<Method, Projection>() {
+
+		public Projection apply(Method method) {
+			return Projection.of(method);
+		}
+		
+	};
+	
+	private static final JsonObject EMPTY = new JsonObject();
+	
 	private JsonElement element;
 	
+	private Projection projection;
+	
+	private Collection<Object> collection;
+	
 	/**
 	 * Constructs a new {@code JSONRequest} from the current {@code WebContext}.
+	 * The request body is read with the pull parser into the parse tree of 
+	 * only the elements that the {@code @Body} parameters of the Web endpoint 
+	 * method are bound from; the other elements are skipped. If the only 
+	 * {@code @Body} parameter is the no-named collection of user-defined 
+	 * object type, the elements of the JSON array are bound into the objects 
+	 * one at a time as they are read.
 	 * 
 	 * @param context The current {@code WebContext}.
 	 */
 	public void from(WebContext context) {
+		super.from(context);
+		projection = attachment(Projection.class, PROJECTION);
+		
 		try {
-			element = new JsonParser().parse(context.request().getReader());
+			if (projection.collection() == null) {
+				element = projection.read(context.request().getReader());
+			} else {
+				collection = collection(projection.collection(), context.request().getReader());
+			}
 		} catch (Exception e) {
 			logger.warn("Cannot parse JSON string into a parse tree", e);
 			throw new UncheckedException(e);
 		}
-		
-		super.from(context);
 	}
 	
 	/**
@@ -80,9 +113,177 @@ public class JSONRequest extends AbstractRequest {
 	 */
 	@Override
 	protected Object body(Type type, String name) {
+		if (projection != null && projection.collection() != null) {
+			return collection;
+		}
+		
 		return body(type, name, element);
 	}
 	
+	// No-named collection of user-defined object type read from the request 
+	// body without the parse tree of the entire JSON array.
+	private Collection<Object> collection(Type type, Reader reader) throws IOException {
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(true);
+		JsonToken token;
+		
+		try {
+			token = jsonReader.peek();
+		} catch (EOFException e) {
+			logger.debug("Posted JSON element is not a JSON array");
+			return null;
+		}
+		
+		Collection<Object> collection = null;
+		
+		if (token == JsonToken.BEGIN_ARRAY) {
+			collection = elements(jsonReader, type);
+		} else {
+			logger.debug("Posted JSON element is not a JSON array");
+			jsonReader.skipValue();
+		}
+		
+		if (token != JsonToken.NULL && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("Did not consume the entire document.");
+		}
+		
+		return collection;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Collection<Object> elements(JsonReader reader, Type type) throws IOException {
+		Class<?> elementType = Types.getElementType(type);
+		Collection<Object> collection = null;
+		
+		try {
+			collection = (Collection<Object>) Types.getDefaultImplementationType(type).newInstance();
+		} catch (Exception e) {
+			logger.debug("Cannot instantiate ["
+					+ Types.getDefaultImplementationType(type)
+					+ "] (Default implementation type of ["
+					+ type + "])", e);
+		}
+		
+		reader.beginArray();
+		
+		while (reader.hasNext()) {
+			if (collection == null) {
+				reader.skipValue();
+				continue;
+			}
+			
+			Object instance = object(reader, elementType);
+			
+			if (instance == null) {
+				logger.warn("Cannot instantiate [" + elementType
+						+ "] (Collection element type of [" + type + "])");
+				collection = null;
+			} else {
+				collection.add(instance);
+			}
+		}
+		
+		reader.endArray();
+		return (collection == null || collection.isEmpty()) ? null : collection;
+	}
+	
+	// User-defined object bound from the JSON object as it is read. The field 
+	// not in the JSON object is bound as the other JSON requests. Returns 
+	// null if the object cannot be bound.
+	private Object object(JsonReader reader, Class<?> type) throws IOException {
+		Binder binder = Binder.of(type);
+		Object instance;
+		
+		try {
+			instance = binder.newInstance();
+		} catch (Exception e) {
+			logger.warn("Cannot instantiate [" + type + "]", e);
+			reader.skipValue();
+			return null;
+		}
+		
+		List<Binder.Property> properties = binder.properties();
+		boolean[] bound = new boolean[properties.size()];
+		boolean failed = false;
+		
+		if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+			reader.beginObject();
+			
+			while (reader.hasNext()) {
+				int index = binder.indexOf(reader.nextName());
+				
+				if (index == -1) {
+					reader.skipValue();
+					continue;
+				}
+				
+				bound[index] = true;
+				Binder.Property property = properties.get(index);
+				failed |= !set(instance, property, value(reader, property));
+			}
+			
+			reader.endObject();
+		} else {
+			reader.skipValue();
+		}
+		
+		for (int i = 0; i < bound.length; i++) {
+			if (!bound[i]) {
+				Binder.Property property = properties.get(i);
+				failed |= !set(instance, property, body(property.type(), property.name(), EMPTY));
+			}
+		}
+		
+		return (failed) ? null : instance;
+	}
+	
+	private Object value(JsonReader reader, Binder.Property property) throws IOException {
+		Type type = property.type();
+		JsonToken token = reader.peek();
+		
+		if (Types.isCollection(type)) {
+			if (token == JsonToken.BEGIN_ARRAY && Types.isSupportedCollection(type)) {
+				Class<?> elementType = Types.getElementType(type);
+				
+				if (!Types.isCoreValueType(elementType)
+						&& !Types.isUserDefinedValueType(elementType)) {
+					// Named collection of user-defined object type.
+					return elements(reader, type);
+				}
+			}
+			
+		} else if (token == JsonToken.BEGIN_OBJECT && !Types.isArray(type) 
+				&& !Types.isCoreValueType(type) && !Types.isUserDefinedValueType(type)) {
+			// Named user-defined object type.
+			Object instance = object(reader, Types.getRawType(type));
+			
+			if (instance == null) {
+				logger.warn("Cannot instantiate [" + type + "]");
+			}
+			
+			return instance;
+		}
+		
+		// The value is bound from its own parse tree as the other JSON requests.
+		JsonObject object = new JsonObject();
+		object.add(property.name(), new JsonParser().parse(reader));
+		return body(type, property.name(), object);
+	}
+	
+	private boolean set(Object instance, Binder.Property property, Object value) {
+		if (value == null) {
+			return true;
+		}
+		
+		try {
+			property.set(instance, value);
+			return true;
+		} catch (Exception e) {
+			logger.warn("Cannot set [" + value + "] to [" + property.name() + "]", e);
+			return false;
+		}
+	}
+	
 	@SuppressWarnings("unchecked")
 	private Object body(Type type, String name, final JsonElement element) {
 		Function<String, Object> value = new Function<String, Object>() {
@@ -155,15 +356,16 @@ public class JSONRequest extends AbstractRequest {
 							Collection<Object> collection = (Collection<Object>) implementationType.newInstance();
 							
 							try {
+								Binder binder = Binder.of(elementType);
+								
 								for (Object jsonElement : jsonElements) {
-									Object instance = elementType.newInstance();
+									Object instance = binder.newInstance();
 									
-									for (Field field : elementType.getDeclaredFields()) {
-										Object object = body(field.getGenericType(), field.getName(), (JsonElement) jsonElement);
+									for (Binder.Property property : binder.properties()) {
+										Object object = body(property.type(), property.name(), (JsonElement) jsonElement);
 										
 										if (object != null) {
-											field.setAccessible(true);
-											field.set(instance, object);
+											property.set(instance, object);
 										}
 									}
 									
@@ -195,14 +397,14 @@ public class JSONRequest extends AbstractRequest {
 				Object jsonElement = value.apply(name);
 				
 				try {
-					Object instance = rawType.newInstance();
+					Binder binder = Binder.of(rawType);
+					Object instance = binder.newInstance();
 					
-					for (Field field : rawType.getDeclaredFields()) {
-						Object object = body(field.getGenericType(), field.getName(), (JsonElement) jsonElement);
+					for (Binder.Property property : binder.properties()) {
+						Object object = body(property.type(), property.name(), (JsonElement) jsonElement);
 						
 						if (object != null) {
-							field.setAccessible(true);
-							field.set(instance, object);
+							property.set(instance, object);
 						}
 					}
 					
@@ -250,15 +452,16 @@ public class JSONRequest extends AbstractRequest {
 								
 							} else {
 								// No-named collection of user-defined object type.
+								Binder binder = Binder.of(elementType);
+								
 								for (Object jsonElement : objects) {
-									Object instance = elementType.newInstance();
+									Object instance = binder.newInstance();
 									
-									for (Field field : elementType.getDeclaredFields()) {
-										Object object = body(field.getGenericType(), field.getName(), (JsonElement) jsonElement);
+									for (Binder.Property property : binder.properties()) {
+										Object object = body(property.type(), property.name(), (JsonElement) jsonElement);
 										
 										if (object != null) {
-											field.setAccessible(true);
-											field.set(instance, object);
+											property.set(instance, object);
 										}
 									}
 									
@@ -18,7 +18,11 @@ package org.eiichiro.bootleg.json;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -28,8 +32,11 @@ import org.eiichiro.bootleg.Types;
 import org.eiichiro.bootleg.WebContext;
 import org.eiichiro.reverb.lang.UncheckedException;
 
+import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 
 /**
  * {@code JSONResponse} is a JSON-based implementation of {@code Response}.
@@ -43,12 +50,37 @@ import com.google.gson.GsonBuilder;
  */
 public class JSONResponse extends AbstractResponse {
 
+	private static final int CACHE = 512;
+	
+	private static final int FLUSH = 100;
+	
+	private static final ValueTypeJsonSerializer<Object> serializer = new ValueTypeJsonSerializer<Object>();
+	
+	private static final Map<Class<?>, Serializer> serializers = new MapMaker().maximumSize(CACHE)
+			.makeComputingMap(new Function<Class<?>, Serializer>() {
+
+				public Serializer apply(Class<?> clazz) {
+					return create(clazz);
+				}
+				
+			});
+	
 	public JSONResponse() {
 		mediaType = MediaType.APPLICATION_JSON;
 	}
 	
 	/**
 	 * Writes {@code JSONResponse} to the current {@code WebContext}.
+	 * The JSON text is encoded into UTF-8 directly on the 
+	 * {@code OutputStream} of the HTTP response without being built as a 
+	 * {@code String}; <code>Content-Length</code> header is set if the output 
+	 * is not larger than the encoding buffer (8 KB).
+	 * If the entity is an {@code Iterator} (e.g. {@link org.eiichiro.bootleg.Cursor}), the elements 
+	 * are serialized one by one as a JSON array, or as newline delimited JSON 
+	 * if the media type is {@link MediaType#APPLICATION_NDJSON}, and the 
+	 * output is flushed every 100 elements.
+	 * The entity (and the element) is written by the {@link JSONWriter} 
+	 * generated for the entity class if available, or by Gson otherwise.
 	 * 
 	 * @param context The current {@code WebContext}.
 	 */
@@ -67,42 +99,158 @@ public class JSONResponse extends AbstractResponse {
 				response.setStatus(status);
 			}
 			
-			if (entity instanceof String) {
-				response.getWriter().write((String) entity);
-				return;
-			}
-			
-			GsonBuilder builder = new GsonBuilder();
-			Set<Class<?>> classes = new HashSet<Class<?>>();
-			parse(entity.getClass(), classes);
+			UTF8Writer writer = new UTF8Writer(response);
 			
-			for (Class<?> clazz : classes) {
-				builder.registerTypeAdapter(clazz, new ValueTypeJsonSerializer<Object>());
+			try {
+				if (entity instanceof String) {
+					writer.write((String) entity);
+				} else if (entity instanceof Iterator<?>) {
+					write((Iterator<?>) entity, writer);
+				} else {
+					write(entity, writer);
+				}
+				
+				writer.close();
+			} finally {
+				writer.discard();
 			}
 			
-			// XXX: Any options?
-			Gson gson = builder.create();
-			response.getWriter().write(gson.toJson(entity));
 		} catch (IOException e) {
 			throw new UncheckedException(e);
+		} catch (JsonIOException e) {
+			throw new UncheckedException(e);
+		}
+	}
+	
+	private void write(Iterator<?> iterator, UTF8Writer writer) throws IOException {
+		boolean ndjson = mediaType.equals(MediaType.APPLICATION_NDJSON);
+		int count = 0;
+		
+		if (!ndjson) {
+			writer.write('[');
+		}
+		
+		while (iterator.hasNext()) {
+			Object element = iterator.next();
+			
+			if (count > 0 && !ndjson) {
+				writer.write(',');
+			}
+			
+			if (element == null) {
+				writer.write("null");
+			} else {
+				write(element, writer);
+			}
+			
+			if (ndjson) {
+				writer.write('\n');
+			}
+			
+			if (++count % FLUSH == 0) {
+				writer.flush();
+			}
+		}
+		
+		if (!ndjson) {
+			writer.write(']');
+		}
+	}
+	
+	private static void write(Object entity, UTF8Writer writer) throws IOException {
+		Class<?> clazz = entity.getClass();
+		Serializer serializer = serializers.get(clazz);
+		JSONWriter jsonWriter = JSONWriter.of(clazz);
+		
+		if (jsonWriter == null) {
+			serializer.gson.toJson(entity, writer);
+		} else {
+			jsonWriter.write(entity, serializer.output(writer));
+		}
+	}
+	
+	/**
+	 * Returns the {@code Gson} for the specified entity class.
+	 * The user-defined value types and the core value types reachable from 
+	 * the entity class are discovered once per entity class and the 
+	 * {@code Gson} configured with them is cached (up to 512 entity classes) 
+	 * and shared across the threads, so the reflective type information of 
+	 * Gson is reused over the responses. The value types added by 
+	 * {@code Types#addCoreValueType(Class, Converter)} after the first 
+	 * response of the entity class are not reflected.
+	 * 
+	 * @param clazz The entity class.
+	 * @return The {@code Gson} for the specified entity class.
+	 */
+	static Gson gson(Class<?> clazz) {
+		return serializers.get(clazz).gson;
+	}
+	
+	/**
+	 * Returns the {@code JSONWriter.Output} that writes the specified entity 
+	 * class to the specified {@code Appendable}, with the same {@code Gson} 
+	 * as {@link #gson(Class)}.
+	 * 
+	 * @param clazz The entity class.
+	 * @param appendable The {@code Appendable} to which the JSON text is 
+	 * written.
+	 * @return The {@code JSONWriter.Output}.
+	 */
+	static JSONWriter.Output output(Class<?> clazz, Appendable appendable) {
+		return serializers.get(clazz).output(appendable);
+	}
+	
+	private static Serializer create(Class<?> clazz) {
+		GsonBuilder builder = new GsonBuilder();
+		Set<Class<?>> values = new HashSet<Class<?>>();
+		parse(clazz, values, new HashSet<Class<?>>());
+		
+		for (Class<?> value : values) {
+			builder.registerTypeAdapter(value, serializer);
 		}
+		
+		// XXX: Any options?
+		return new Serializer(builder.create(), values);
 	}
 	
-	private void parse(Class<?> clazz, Set<Class<?>> values) {
+	private static void parse(Class<?> clazz, Set<Class<?>> values, Set<Class<?>> parsed) {
 		if (Types.isArray(clazz) || Types.isCollection(clazz)) {
-			parse(Types.getElementType(clazz), values);
+			parse(Types.getElementType(clazz), values, parsed);
 		} else if (Types.isUserDefinedValueType(clazz)
 				|| Types.isCoreValueType(clazz)) {
-			if (!values.contains(clazz)) {
-				values.add(clazz);
-			}
-			
+			values.add(clazz);
+			return;
+		}
+		
+		if (!parsed.add(clazz)) {
 			return;
 		}
 		
 		for (Field field : clazz.getDeclaredFields()) {
-			parse(field.getType(), values);
+			parse(field.getType(), values, parsed);
 		}
 	}
 
+	/** {@code Gson} and the value types registered to it for the entity class. */
+	private static final class Serializer {
+		
+		private final Gson gson;
+		
+		private final Set<Class<?>> values;
+		
+		// The fields of each JSONWriter written as the registered value types.
+		private final ConcurrentMap<JSONWriter, boolean[]> registered 
+				= new ConcurrentHashMap<JSONWriter, boolean[]>();
+		
+		private Serializer(Gson gson, Set<Class<?>> values) {
+			this.gson = gson;
+			this.values = values;
+		}
+		
+		private JSONWriter.Output output(Appendable appendable) {
+			return new JSONWriter.Output(appendable, gson, values, registered);
+		}
+		
+	}
+	
 }
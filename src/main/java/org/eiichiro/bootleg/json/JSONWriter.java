@@ -0,0 +1,941 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.BaseStream;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.eiichiro.bootleg.Types;
+import org.eiichiro.reverb.lang.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * {@code JSONWriter} writes the fields of the entity class to the JSON 
+ * response directly.
+ * The subclass is generated with Javassist once per entity class: the 
+ * generated {@code JSONWriter} reads the public fields of the public classes 
+ * directly (the other fields are read with the cached {@code MethodHandle}s, 
+ * without boxing the primitive values) and writes the property names from 
+ * the pre-encoded UTF-8 bytes, so the entity is serialized without building 
+ * the parse tree of Gson. The output is the same as the {@code Gson} that 
+ * {@link JSONResponse} configures for the entity class; the value types (see 
+ * {@link ValueTypeJsonSerializer}) are written as JSON string, the nested 
+ * objects are written by the {@code JSONWriter} of the nested object class 
+ * and the others (e.g. collections, maps and the classes of Java platform) 
+ * are written by the {@code Gson}. How each field is written is determined 
+ * when the {@code JSONWriter} is generated, and whether the value type field 
+ * is registered to the {@code Gson} is determined once per {@code Gson}.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public abstract class JSONWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(JSONWriter.class);
+	
+	// Maximum depth of the nested objects; the deeper object graph is regarded 
+	// as circular reference.
+	private static final int DEPTH = 512;
+	
+	private static final AtomicLong sequence = new AtomicLong();
+	
+	// Marker of the class that the JSONWriter is not generated for.
+	private static final Object UNSUPPORTED = new Object();
+	
+	private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+	
+	private static final ClassValue<Object> writers = new ClassValue<Object>() {
+
+		@Override
+		protected Object computeValue(Class<?> type) {
+			if (!supports(type)) {
+				return UNSUPPORTED;
+			}
+			
+			try {
+				JSONWriter writer = compile(type);
+				return (writer == null) ? UNSUPPORTED : writer;
+			} catch (Throwable t) {
+				logger.warn("Cannot generate JSON writer for [" + type + "]; Gson is used instead", t);
+				return UNSUPPORTED;
+			}
+		}
+		
+	};
+	
+	private Class<?> type;
+	
+	private char[][] names;
+	
+	private byte[][] encoded;
+	
+	private Field[] fields;
+	
+	private MethodHandle[] getters;
+	
+	private Class<?>[] classes;
+	
+	private Type[] types;
+	
+	/** Constructs a new {@code JSONWriter}. */
+	protected JSONWriter() {}
+	
+	/**
+	 * Returns the {@code JSONWriter} for the specified entity class. The 
+	 * {@code JSONWriter} is generated on the first invocation for the class.
+	 * 
+	 * @param type The entity class.
+	 * @return The {@code JSONWriter} or <code>null</code> if the entity class 
+	 * is not supported (the entity is serialized by Gson).
+	 */
+	public static JSONWriter of(Class<?> type) {
+		Object writer = writers.get(type);
+		return (writer == UNSUPPORTED) ? null : (JSONWriter) writer;
+	}
+	
+	/**
+	 * Generates the {@code JSONWriter}s for the specified entity class and the 
+	 * classes of its nested objects in advance.
+	 * 
+	 * @param type The entity class.
+	 * @return The number of the {@code JSONWriter}s available for the class 
+	 * and the classes of its nested objects.
+	 */
+	public static int generate(Class<?> type) {
+		List<Class<?>> classes = new ArrayList<Class<?>>();
+		classes.add(type);
+		Set<Class<?>> generated = new HashSet<Class<?>>();
+		int count = 0;
+		
+		while (!classes.isEmpty()) {
+			Class<?> clazz = classes.remove(classes.size() - 1);
+			
+			if (!generated.add(clazz)) {
+				continue;
+			}
+			
+			JSONWriter writer = of(clazz);
+			
+			if (writer != null) {
+				count++;
+				
+				for (Field field : writer.fields) {
+					if (supports(field.getType())) {
+						classes.add(field.getType());
+					}
+				}
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Determines if the {@code JSONWriter} can be generated for the specified 
+	 * class. The classes of Java platform, the value types, collections, maps, 
+	 * arrays, enums, the abstract, anonymous and local classes and the classes 
+	 * that declare the field of type variable (e.g. <code>V value</code> or 
+	 * <code>List&lt;V&gt; list</code> of <code>Box&lt;V&gt;</code>) are not 
+	 * supported; Gson resolves the type variables with the declared type of 
+	 * the entity.
+	 * 
+	 * @param type The class.
+	 * @return <code>true</code> if the {@code JSONWriter} can be generated.
+	 */
+	static boolean supports(Class<?> type) {
+		if (type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+				|| type.isAnonymousClass() || type.isLocalClass()
+				|| Modifier.isAbstract(type.getModifiers())
+				|| Types.isCoreValueType(type) || Types.isUserDefinedValueType(type)
+				|| Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+				|| Iterator.class.isAssignableFrom(type) || Iterable.class.isAssignableFrom(type)
+				|| BaseStream.class.isAssignableFrom(type)
+				|| JsonElement.class.isAssignableFrom(type)) {
+			return false;
+		}
+		
+		for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+			String name = clazz.getName();
+			
+			if (name.startsWith("java.") || name.startsWith("javax.") 
+					|| name.startsWith("com.google.gson.")) {
+				return false;
+			}
+			
+			for (Field field : clazz.getDeclaredFields()) {
+				Class<?> fieldType = field.getType();
+				
+				if (!excluded(field) && (fieldType.isAnonymousClass() || fieldType.isLocalClass() 
+						|| variable(field.getGenericType()))) {
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	// Determines if the specified type contains any type variable.
+	private static boolean variable(Type type) {
+		if (type instanceof TypeVariable<?>) {
+			return true;
+		} else if (type instanceof ParameterizedType) {
+			for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+				if (variable(argument)) {
+					return true;
+				}
+			}
+			
+		} else if (type instanceof GenericArrayType) {
+			return variable(((GenericArrayType) type).getGenericComponentType());
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			
+			for (Type bound : wildcardType.getUpperBounds()) {
+				if (variable(bound)) {
+					return true;
+				}
+			}
+			
+			for (Type bound : wildcardType.getLowerBounds()) {
+				if (variable(bound)) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	// The fields excluded by Gson by default.
+	private static boolean excluded(Field field) {
+		int modifiers = field.getModifiers();
+		return Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic();
+	}
+	
+	private static JSONWriter compile(Class<?> type) throws Exception {
+		List<Field> fields = new ArrayList<Field>();
+		Set<String> names = new HashSet<String>();
+		
+		for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (excluded(field)) {
+					continue;
+				}
+				
+				if (!names.add(name(field))) {
+					logger.debug("Field name [" + name(field) + "] is duplicated in [" + type + "]");
+					return null;
+				}
+				
+				fields.add(field);
+			}
+		}
+		
+		StringBuilder body = new StringBuilder();
+		body.append("protected void fields(Object object, " 
+				+ Output.class.getName() + " output) throws java.io.IOException {\n");
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle[] getters = new MethodHandle[fields.size()];
+		
+		for (int i = 0; i < fields.size(); i++) {
+			Field field = fields.get(i);
+			Class<?> fieldType = field.getType();
+			String method = (fieldType.isPrimitive() || Types.isCoreValueType(fieldType) 
+					|| Types.isUserDefinedValueType(fieldType)) ? "value" 
+					: (supports(fieldType)) ? "nested" : "other";
+			String value;
+			
+			if (Modifier.isPublic(field.getModifiers()) 
+					&& Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+				value = "((" + field.getDeclaringClass().getName() + ") object)." + field.getName();
+				
+				if (!fieldType.isPrimitive()) {
+					value = "(Object) " + value;
+				}
+				
+			} else {
+				// The primitive value is read without boxing.
+				field.setAccessible(true);
+				getters[i] = lookup.unreflectGetter(field).asType((fieldType.isPrimitive()) 
+						? MethodType.methodType(fieldType, Object.class) : GETTER);
+				String name = fieldType.getName();
+				value = ((fieldType.isPrimitive()) 
+						? "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1) 
+						: "get") + "(object, " + i + ")";
+			}
+			
+			body.append("\t" + method + "(output, " + value + ", " + i + ");\n");
+		}
+		
+		body.append("}");
+		ClassPool pool = new ClassPool(true);
+		pool.appendClassPath(new ClassClassPath(JSONWriter.class));
+		pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+		CtClass ctClass = pool.makeClass(JSONWriter.class.getName() + "$" 
+				+ type.getSimpleName() + "$" + sequence.incrementAndGet());
+		ctClass.setSuperclass(pool.get(JSONWriter.class.getName()));
+		ctClass.addConstructor(CtNewConstructor.defaultConstructor(ctClass));
+		ctClass.addMethod(CtNewMethod.make(body.toString(), ctClass));
+		byte[] bytecode = ctClass.toBytecode();
+		ctClass.detach();
+		JSONWriter writer = (JSONWriter) new Loader(type.getClassLoader())
+				.define(ctClass.getName(), bytecode).newInstance();
+		writer.type = type;
+		writer.fields = fields.toArray(new Field[fields.size()]);
+		writer.getters = getters;
+		writer.names = new char[fields.size()][];
+		writer.encoded = new byte[fields.size()][];
+		writer.classes = new Class<?>[fields.size()];
+		writer.types = new Type[fields.size()];
+		
+		for (int i = 0; i < fields.size(); i++) {
+			Field field = fields.get(i);
+			StringBuilder name = new StringBuilder();
+			escape(name(field), name);
+			name.append(':');
+			writer.names[i] = name.toString().toCharArray();
+			writer.encoded[i] = name.toString().getBytes("UTF-8");
+			writer.classes[i] = field.getType();
+			writer.types[i] = field.getGenericType();
+		}
+		
+		logger.debug("JSON writer for [" + type + "] generated:\n" + body);
+		return writer;
+	}
+	
+	private static String name(Field field) {
+		SerializedName serializedName = field.getAnnotation(SerializedName.class);
+		return (serializedName == null) ? field.getName() : serializedName.value();
+	}
+	
+	/**
+	 * Writes the specified entity as JSON object.
+	 * 
+	 * @param object The entity.
+	 * @param output The output.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	public void write(Object object, Output output) throws IOException {
+		if (++output.depth > DEPTH) {
+			throw new IllegalStateException("Object graph of [" + type 
+					+ "] is too deep; Circular reference?");
+		}
+		
+		output.write('{');
+		output.first = true;
+		boolean[] registered = output.registered;
+		output.registered = output.registered(this);
+		fields(object, output);
+		output.registered = registered;
+		output.write('}');
+		output.first = false;
+		output.depth--;
+	}
+	
+	/**
+	 * Writes the fields of the specified entity; the implementation is 
+	 * generated per entity class.
+	 * 
+	 * @param object The entity.
+	 * @param output The output.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected abstract void fields(Object object, Output output) throws IOException;
+	
+	/**
+	 * Returns the value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The value of the field.
+	 */
+	protected final Object get(Object object, int index) {
+		try {
+			return (Object) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>boolean</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>boolean</code> value of the field.
+	 */
+	protected final boolean getBoolean(Object object, int index) {
+		try {
+			return (boolean) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>char</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>char</code> value of the field.
+	 */
+	protected final char getChar(Object object, int index) {
+		try {
+			return (char) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>byte</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>byte</code> value of the field.
+	 */
+	protected final byte getByte(Object object, int index) {
+		try {
+			return (byte) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>short</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>short</code> value of the field.
+	 */
+	protected final short getShort(Object object, int index) {
+		try {
+			return (short) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>int</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>int</code> value of the field.
+	 */
+	protected final int getInt(Object object, int index) {
+		try {
+			return (int) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>long</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>long</code> value of the field.
+	 */
+	protected final long getLong(Object object, int index) {
+		try {
+			return (long) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>float</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>float</code> value of the field.
+	 */
+	protected final float getFloat(Object object, int index) {
+		try {
+			return (float) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	/**
+	 * Returns the <code>double</code> value of the field at the specified index.
+	 * 
+	 * @param object The entity.
+	 * @param index The index of the field.
+	 * @return The <code>double</code> value of the field.
+	 */
+	protected final double getDouble(Object object, int index) {
+		try {
+			return (double) getters[index].invokeExact(object);
+		} catch (Throwable t) {
+			throw unchecked(t);
+		}
+	}
+	
+	// Errors are rethrown as they are.
+	private static RuntimeException unchecked(Throwable t) {
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		
+		return (t instanceof RuntimeException) ? (RuntimeException) t : new UncheckedException(t);
+	}
+	
+	private void name(Output output, int index) throws IOException {
+		if (!output.first) {
+			output.write(',');
+		}
+		
+		output.first = false;
+		
+		if (output.writer != null) {
+			output.writer.write(encoded[index]);
+		} else {
+			output.appendable.append(new String(names[index]));
+		}
+	}
+	
+	/**
+	 * Writes the value type field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, Object value, int index) throws IOException {
+		if (value == null) {
+			return;
+		}
+		
+		// The value type that is not registered to the Gson (e.g. the type of 
+		// the inherited field) is written by the Gson as it is.
+		if (!output.registered[index]) {
+			other(output, value, index);
+			return;
+		}
+		
+		Class<?> type = classes[index];
+		name(output, index);
+		string((Types.hasStandardConverter(type)) ? value.toString() 
+				: ValueTypeJsonSerializer.string(value, type), output);
+	}
+	
+	/**
+	 * Writes the <code>int</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, int value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Integer.toString(value));
+			output.write('"');
+		} else {
+			value(output, Integer.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>long</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, long value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Long.toString(value));
+			output.write('"');
+		} else {
+			value(output, Long.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>boolean</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, boolean value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write((value) ? "\"true\"" : "\"false\"");
+		} else {
+			value(output, Boolean.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>double</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, double value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Double.toString(value));
+			output.write('"');
+		} else {
+			value(output, Double.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>float</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, float value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Float.toString(value));
+			output.write('"');
+		} else {
+			value(output, Float.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>short</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, short value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Integer.toString(value));
+			output.write('"');
+		} else {
+			value(output, Short.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>byte</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, byte value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			output.write(Integer.toString(value));
+			output.write('"');
+		} else {
+			value(output, Byte.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the <code>char</code> field at the specified index.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void value(Output output, char value, int index) throws IOException {
+		if (output.registered[index] && Types.hasStandardConverter(classes[index])) {
+			name(output, index);
+			output.write('"');
+			String escape = escape(value);
+			
+			if (escape == null) {
+				output.write(value);
+			} else {
+				output.write(escape);
+			}
+			
+			output.write('"');
+		} else {
+			value(output, Character.valueOf(value), index);
+		}
+	}
+	
+	/**
+	 * Writes the nested object field at the specified index with the 
+	 * {@code JSONWriter} of the field type.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void nested(Output output, Object value, int index) throws IOException {
+		if (value == null) {
+			return;
+		}
+		
+		JSONWriter writer = (value.getClass() == classes[index]) ? of(classes[index]) : null;
+		
+		if (writer == null) {
+			other(output, value, index);
+			return;
+		}
+		
+		name(output, index);
+		writer.write(value, output);
+	}
+	
+	/**
+	 * Writes the field at the specified index with Gson.
+	 * 
+	 * @param output The output.
+	 * @param value The value of the field.
+	 * @param index The index of the field.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	protected final void other(Output output, Object value, int index) throws IOException {
+		if (value == null || value.getClass().isAnonymousClass() || value.getClass().isLocalClass()) {
+			return;
+		}
+		
+		// Gson writes the field with the runtime type if the declared type is 
+		// not parameterized.
+		name(output, index);
+		output.gson.toJson(value, (types[index] instanceof Class<?>) 
+				? value.getClass() : types[index], output.appendable);
+	}
+	
+	private static void string(String string, Output output) throws IOException {
+		output.write('"');
+		int length = string.length();
+		int start = 0;
+		
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			
+			if (c >= 0x20 && c != '"' && c != '\\' && c != '&' && c != '\'' 
+					&& c != '<' && c != '=' && c != '>') {
+				continue;
+			}
+			
+			if (start < i) {
+				output.write(string, start, i);
+			}
+			
+			start = i + 1;
+			output.write(escape(c));
+		}
+		
+		if (start < length) {
+			output.write(string, start, length);
+		}
+		
+		output.write('"');
+	}
+	
+	private static void escape(String string, StringBuilder builder) {
+		builder.append('"');
+		
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			String escape = escape(c);
+			
+			if (escape == null) {
+				builder.append(c);
+			} else {
+				builder.append(escape);
+			}
+		}
+		
+		builder.append('"');
+	}
+	
+	// Escapes the character in the same way as Gson's HTML-safe JSON writer.
+	private static String escape(char c) {
+		switch (c) {
+		case '"':
+			return "\\\"";
+		case '\\':
+			return "\\\\";
+		case '\b':
+			return "\\b";
+		case '\t':
+			return "\\t";
+		case '\n':
+			return "\\n";
+		case '\f':
+			return "\\f";
+		case '\r':
+			return "\\r";
+		case '&':
+		case '\'':
+		case '<':
+		case '=':
+		case '>':
+			return String.format("\\u%04x", (int) c);
+		default:
+			return (c < 0x20) ? String.format("\\u%04x", (int) c) : null;
+		}
+	}
+	
+	/**
+	 * Output of {@code JSONWriter}; the JSON text is written to 
+	 * {@code Appendable} with the {@code Gson} that {@link JSONResponse} 
+	 * configures for the entity class.
+	 */
+	public static final class Output {
+		
+		private final Appendable appendable;
+		
+		private final UTF8Writer writer;
+		
+		private final Gson gson;
+		
+		private final Set<Class<?>> values;
+		
+		private final ConcurrentMap<JSONWriter, boolean[]> registrations;
+		
+		// The fields of the JSONWriter being written as the registered value 
+		// types.
+		private boolean[] registered;
+		
+		private boolean first;
+		
+		private int depth;
+		
+		/**
+		 * Constructs a new {@code Output}.
+		 * 
+		 * @param appendable The {@code Appendable} to which the JSON text is 
+		 * written.
+		 * @param gson The {@code Gson} for the entity class.
+		 * @param values The value types registered to the {@code Gson}.
+		 * @param registrations The cache of the fields written as the 
+		 * registered value types per {@code JSONWriter}, shared by the outputs 
+		 * of the same {@code Gson}.
+		 */
+		Output(Appendable appendable, Gson gson, Set<Class<?>> values, 
+				ConcurrentMap<JSONWriter, boolean[]> registrations) {
+			this.appendable = appendable;
+			this.writer = (appendable instanceof UTF8Writer) ? (UTF8Writer) appendable : null;
+			this.gson = gson;
+			this.values = values;
+			this.registrations = registrations;
+		}
+		
+		private boolean[] registered(JSONWriter writer) {
+			boolean[] registered = registrations.get(writer);
+			
+			if (registered == null) {
+				registered = new boolean[writer.classes.length];
+				
+				for (int i = 0; i < registered.length; i++) {
+					registered[i] = values.contains(writer.classes[i]);
+				}
+				
+				registrations.putIfAbsent(writer, registered);
+			}
+			
+			return registered;
+		}
+		
+		private void write(char c) throws IOException {
+			appendable.append(c);
+		}
+		
+		private void write(String string) throws IOException {
+			appendable.append(string);
+		}
+		
+		private void write(String string, int start, int end) throws IOException {
+			appendable.append(string, start, end);
+		}
+		
+	}
+	
+	/** {@code ClassLoader} to define the generated {@code JSONWriter}. */
+	private static final class Loader extends ClassLoader {
+		
+		private Loader(ClassLoader parent) {
+			super(parent);
+		}
+		
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			return JSONWriter.class.getClassLoader().loadClass(name);
+		}
+		
+		private Class<?> define(String name, byte[] bytecode) {
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+		
+	}
+	
+}
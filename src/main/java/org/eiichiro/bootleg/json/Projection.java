@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eiichiro.bootleg.Binder;
+import org.eiichiro.bootleg.Types;
+import org.eiichiro.bootleg.annotation.Body;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Projection of the JSON request body onto the {@code @Body} parameters of 
+ * Web endpoint method.
+ * The projection is built once per Web endpoint method from the names and 
+ * the types of its {@code @Body} parameters (and the fields of the 
+ * user-defined object types recursively) and the request body is read with 
+ * the pull parser into the parse tree of only the elements that the 
+ * parameters are bound from; the other elements are skipped without being 
+ * materialized. If the Web endpoint method has no {@code @Body} parameter, 
+ * the request body is not read at all. If the only {@code @Body} parameter 
+ * is the no-named collection of user-defined object type, the request body 
+ * is not read into the parse tree but bound element by element by 
+ * {@link JSONRequest} (See {@link #collection()}).
+ * The projection is cached in the compiled metadata of the Web endpoint 
+ * method by {@link JSONRequest}.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class Projection {
+
+	/** The projection that reads the entire element. */
+	static final Projection ALL = new Projection();
+	
+	/** The projection that reads nothing. */
+	static final Projection NONE = new Projection();
+	
+	private final Map<String, Projection> members = new HashMap<String, Projection>();
+	
+	private Projection element;
+	
+	private Type collection;
+	
+	private Projection() {}
+	
+	/**
+	 * Builds the projection of the request body onto the {@code @Body} 
+	 * parameters of the specified Web endpoint method.
+	 * 
+	 * @param method Web endpoint method. If <code>null</code> is specified, 
+	 * {@link #ALL} is returned.
+	 * @return The projection of the request body.
+	 */
+	static Projection of(Method method) {
+		if (method == null) {
+			return ALL;
+		}
+		
+		Type[] types = method.getGenericParameterTypes();
+		Annotation[][] annotations = method.getParameterAnnotations();
+		Map<Class<?>, Projection> objects = new HashMap<Class<?>, Projection>();
+		Projection root = null;
+		Type collection = null;
+		int bodies = 0;
+		
+		for (int i = 0; i < types.length; i++) {
+			for (Annotation annotation : annotations[i]) {
+				if (!(annotation instanceof Body)) {
+					continue;
+				}
+				
+				if (root == null) {
+					root = new Projection();
+				}
+				
+				String name = ((Body) annotation).value();
+				Type type = types[i];
+				bodies++;
+				
+				if (name != null && !name.isEmpty()) {
+					root.member(name, of(type, objects));
+				} else if (Types.isCollection(type)) {
+					Projection element = of(type, objects).element;
+					root.element(element);
+					
+					if (element != null && element != ALL) {
+						collection = type;
+					}
+					
+				} else if (!Types.isArray(type) && !Types.isCoreValueType(type) 
+						&& !Types.isUserDefinedValueType(type)) {
+					Projection projection = of(type, objects);
+					
+					if (projection == ALL) {
+						return ALL;
+					}
+					
+					for (Map.Entry<String, Projection> member : projection.members.entrySet()) {
+						root.member(member.getKey(), member.getValue());
+					}
+				}
+			}
+		}
+		
+		if (root == null) {
+			return NONE;
+		}
+		
+		if (bodies == 1) {
+			root.collection = collection;
+		}
+		
+		return root;
+	}
+	
+	// The elements read for the specified type. The projection of user-defined 
+	// object type is shared by the fields of the same type, so the recursive 
+	// type is projected as a cyclic graph.
+	private static Projection of(Type type, Map<Class<?>, Projection> objects) {
+		if (Types.isCollection(type)) {
+			if (!Types.isSupportedCollection(type)) {
+				return ALL;
+			}
+			
+			Projection projection = new Projection();
+			projection.element = of(Types.getElementType(type), objects);
+			return projection;
+		} else if (Types.isArray(type) || Types.isCoreValueType(type) 
+				|| Types.isUserDefinedValueType(type)) {
+			return ALL;
+		}
+		
+		Class<?> rawType = Types.getRawType(type);
+		
+		if (rawType.isInterface() || rawType.isAssignableFrom(JsonObject.class) 
+				|| JsonElement.class.isAssignableFrom(rawType)) {
+			return ALL;
+		}
+		
+		Projection projection = objects.get(rawType);
+		
+		if (projection == null) {
+			projection = new Projection();
+			objects.put(rawType, projection);
+			
+			try {
+				for (Binder.Property property : Binder.of(rawType).properties()) {
+					projection.member(property.name(), of(property.type(), objects));
+				}
+			} catch (Exception e) {
+				objects.put(rawType, ALL);
+				return ALL;
+			}
+		}
+		
+		return projection;
+	}
+	
+	// The member read by more than one parameter with the different 
+	// projections is read entirely.
+	private void member(String name, Projection projection) {
+		Projection previous = members.put(name, projection);
+		
+		if (previous != null && previous != projection) {
+			members.put(name, ALL);
+		}
+	}
+	
+	private void element(Projection projection) {
+		element = (element == null || element == projection) ? projection : ALL;
+	}
+	
+	/**
+	 * Returns the type of the no-named collection of user-defined object type 
+	 * if it is the only {@code @Body} parameter of the Web endpoint method. 
+	 * The elements of the collection are bound from the request body one at a 
+	 * time instead of being read into the parse tree.
+	 * 
+	 * @return The type of the no-named collection of user-defined object type 
+	 * or <code>null</code>.
+	 */
+	Type collection() {
+		return collection;
+	}
+	
+	/**
+	 * Reads the JSON text from the specified reader into the parse tree 
+	 * projected by this projection.
+	 * 
+	 * @param reader The reader of JSON text.
+	 * @return The projected parse tree or <code>null</code> if this 
+	 * projection is {@link #NONE}.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	JsonElement read(Reader reader) throws IOException {
+		if (this == NONE) {
+			return null;
+		}
+		
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(true);
+		
+		try {
+			jsonReader.peek();
+		} catch (EOFException e) {
+			return new JsonNull();
+		}
+		
+		JsonElement element = read(jsonReader, new JsonParser());
+		
+		if (!element.isJsonNull() && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("Did not consume the entire document.");
+		}
+		
+		return element;
+	}
+	
+	private JsonElement read(JsonReader reader, JsonParser parser) throws IOException {
+		JsonToken token = reader.peek();
+		
+		if (this == ALL || (token != JsonToken.BEGIN_OBJECT && token != JsonToken.BEGIN_ARRAY)) {
+			return parser.parse(reader);
+		} else if (token == JsonToken.BEGIN_OBJECT) {
+			JsonObject object = new JsonObject();
+			reader.beginObject();
+			
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				Projection projection = members.get(name);
+				
+				if (projection == null) {
+					reader.skipValue();
+				} else {
+					object.add(name, projection.read(reader, parser));
+				}
+			}
+			
+			reader.endObject();
+			return object;
+		} else {
+			JsonArray array = new JsonArray();
+			reader.beginArray();
+			
+			while (reader.hasNext()) {
+				if (element == null) {
+					reader.skipValue();
+				} else {
+					array.add(element.read(reader, parser));
+				}
+			}
+			
+			reader.endArray();
+			return array;
+		}
+	}
+	
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@code Writer} that encodes the characters into UTF-8 directly on the 
+ * {@code OutputStream} of the HTTP response.
+ * The encoded bytes are accumulated in the encoding buffer borrowed from the 
+ * pool shared by the responses. If the entire output fits in the buffer, 
+ * <code>Content-Length</code> header is set and the buffer is written at 
+ * once on {@link #close()}; otherwise the buffer is written to the 
+ * {@code OutputStream} every time it fills up, so the document is never 
+ * built as a {@code String}. The buffered output is not written by 
+ * {@link #flush()} to keep <code>Content-Length</code> available; 
+ * {@link #close()} must be invoked to complete the output. This class is not 
+ * thread-safe.
+ * 
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+final class UTF8Writer extends Writer {
+
+	/** The size of the encoding buffer. */
+	static final int SIZE = 8192;
+	
+	private static final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<byte[]>(64);
+	
+	private final HttpServletResponse response;
+	
+	private OutputStream stream;
+	
+	private byte[] buffer;
+	
+	private int count;
+	
+	private char surrogate;
+	
+	/**
+	 * Constructs a new {@code UTF8Writer} for the specified HTTP response.
+	 * 
+	 * @param response The HTTP response.
+	 */
+	UTF8Writer(HttpServletResponse response) {
+		this.response = response;
+		byte[] buffer = buffers.poll();
+		this.buffer = (buffer == null) ? new byte[SIZE] : buffer;
+	}
+	
+	@Override
+	public void write(int c) throws IOException {
+		encode((char) c);
+	}
+	
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			encode(cbuf[i]);
+		}
+	}
+	
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			encode(str.charAt(i));
+		}
+	}
+	
+	/**
+	 * Writes the specified bytes pre-encoded into UTF-8 as is.
+	 * 
+	 * @param bytes The UTF-8 encoded bytes.
+	 * @throws IOException If any I/O error has occurred.
+	 */
+	void write(byte[] bytes) throws IOException {
+		if (buffer == null) {
+			throw new IOException("Writer closed");
+		}
+		
+		if (surrogate != 0) {
+			surrogate = 0;
+			encode('?');
+		}
+		
+		if (count + bytes.length > SIZE) {
+			drain();
+			
+			if (bytes.length > SIZE) {
+				stream.write(bytes);
+				return;
+			}
+		}
+		
+		System.arraycopy(bytes, 0, buffer, count, bytes.length);
+		count += bytes.length;
+	}
+	
+	private void encode(char c) throws IOException {
+		if (buffer == null) {
+			throw new IOException("Writer closed");
+		}
+		
+		if (count > SIZE - 4) {
+			drain();
+		}
+		
+		byte[] b = buffer;
+		
+		if (surrogate != 0) {
+			char high = surrogate;
+			surrogate = 0;
+			
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				b[count++] = (byte) (0xF0 | (codePoint >> 18));
+				b[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				b[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				b[count++] = (byte) (0x80 | (codePoint & 0x3F));
+				return;
+			}
+			
+			// Unpaired high surrogate.
+			b[count++] = '?';
+			encode(c);
+			return;
+		}
+		
+		if (c < 0x80) {
+			b[count++] = (byte) c;
+		} else if (c < 0x800) {
+			b[count++] = (byte) (0xC0 | (c >> 6));
+			b[count++] = (byte) (0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate(c)) {
+			surrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			// Unpaired low surrogate.
+			b[count++] = '?';
+		} else {
+			b[count++] = (byte) (0xE0 | (c >> 12));
+			b[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			b[count++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+	
+	// Writes the buffered bytes to the output stream; the response is 
+	// streamed without Content-Length from now on.
+	private void drain() throws IOException {
+		if (stream == null) {
+			stream = response.getOutputStream();
+		}
+		
+		stream.write(buffer, 0, count);
+		count = 0;
+	}
+	
+	/**
+	 * Flushes the output stream if the output has been streamed; the output 
+	 * fits in the encoding buffer is retained until {@link #close()}.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (stream != null) {
+			drain();
+			stream.flush();
+		}
+	}
+	
+	/**
+	 * Completes the output and returns the encoding buffer to the pool. If 
+	 * the entire output has fit in the encoding buffer, 
+	 * <code>Content-Length</code> header is set before it is written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (buffer == null) {
+			return;
+		}
+		
+		try {
+			if (surrogate != 0) {
+				surrogate = 0;
+				buffer[count++] = '?';
+			}
+			
+			if (stream == null) {
+				response.setContentLength(count);
+			}
+			
+			drain();
+			stream.flush();
+		} finally {
+			discard();
+		}
+	}
+	
+	/**
+	 * Returns the encoding buffer to the pool without writing the buffered 
+	 * output. This method does nothing if this writer has been closed.
+	 */
+	void discard() {
+		if (buffer != null) {
+			buffers.offer(buffer);
+			buffer = null;
+		}
+	}
+	
+}
@@ -41,18 +41,29 @@ public class ValueTypeJsonSerializer<T> implements JsonSerializer<T> {
 	 */
 	public JsonElement serialize(T src, Type typeOfSrc,
 			JsonSerializationContext context) {
-		Class<?> type = Types.getRawType(typeOfSrc);
+		return new JsonPrimitive(string(src, Types.getRawType(typeOfSrc)));
+	}
+	
+	/**
+	 * Converts the specified value type object to the string representation 
+	 * that this serializer writes.
+	 * 
+	 * @param src The value type object.
+	 * @param type The value type.
+	 * @return The string representation of the value type object.
+	 */
+	static String string(Object src, Class<?> type) {
 		Converter converter = ConvertUtils.lookup(type);
 		
 		if ((converter != null && converter instanceof AbstractConverter)) {
 			String string = (String) ConvertUtils.convert(src, String.class);
 			
 			if (string != null) {
-				return new JsonPrimitive(string);
+				return string;
 			}
 		}
 		
-		return new JsonPrimitive(src.toString());
+		return src.toString();
 	}
 
 }
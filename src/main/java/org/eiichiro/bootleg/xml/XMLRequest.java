@@ -15,7 +15,6 @@
  */
 package org.eiichiro.bootleg.xml;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,6 +23,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.eiichiro.bootleg.AbstractRequest;
+import org.eiichiro.bootleg.Binder;
 import org.eiichiro.bootleg.Types;
 import org.eiichiro.bootleg.WebContext;
 import org.eiichiro.reverb.lang.UncheckedException;
@@ -146,15 +146,16 @@ public class XMLRequest extends AbstractRequest {
 							Collection<Object> collection = (Collection<Object>) implementationType.newInstance();
 							
 							try {
+								Binder binder = Binder.of(elementType);
+								
 								for (Object n : nodes) {
-									Object instance = elementType.newInstance();
+									Object instance = binder.newInstance();
 									
-									for (Field field : elementType.getDeclaredFields()) {
-										Object object = body(field.getGenericType(), field.getName(), (Node) n);
+									for (Binder.Property property : binder.properties()) {
+										Object object = body(property.type(), property.name(), (Node) n);
 										
 										if (object != null) {
-											field.setAccessible(true);
-											field.set(instance, object);
+											property.set(instance, object);
 										}
 									}
 									
@@ -186,14 +187,14 @@ public class XMLRequest extends AbstractRequest {
 				Object n = value.apply(name);
 				
 				try {
-					Object instance = rawType.newInstance();
+					Binder binder = Binder.of(rawType);
+					Object instance = binder.newInstance();
 					
-					for (Field field : rawType.getDeclaredFields()) {
-						Object object = body(field.getGenericType(), field.getName(), (Node) n);
+					for (Binder.Property property : binder.properties()) {
+						Object object = body(property.type(), property.name(), (Node) n);
 						
 						if (object != null) {
-							field.setAccessible(true);
-							field.set(instance, object);
+							property.set(instance, object);
 						}
 					}
 					
@@ -15,6 +15,11 @@
  */
 package org.eiichiro.bootleg.xml;
 
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletResponse;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
@@ -36,12 +41,18 @@ import org.eiichiro.reverb.lang.UncheckedException;
  */
 public class XMLResponse extends AbstractResponse {
 
+	private static final int FLUSH = 100;
+
 	public XMLResponse() {
 		mediaType = MediaType.APPLICATION_XML;
 	}
 	
 	/**
 	 * Writes {@code XMLResponse} to the current {@code WebContext}.
+	 * If the entity is an {@code Iterator} (e.g. {@link org.eiichiro.bootleg.Cursor}), the elements 
+	 * are marshalled one by one as the sequence of XML fragments in 
+	 * <code>&lt;elements&gt;</code> root element and the output is flushed 
+	 * every 100 elements.
 	 * 
 	 * @param context The current {@code WebContext}.
 	 */
@@ -65,6 +76,11 @@ public class XMLResponse extends AbstractResponse {
 				return;
 			}
 			
+			if (entity instanceof Iterator<?>) {
+				write((Iterator<?>) entity, response.getWriter());
+				return;
+			}
+			
 			Marshaller marshaller = JAXBContext.newInstance(entity.getClass()).createMarshaller();
 			marshaller.setAdapter(new ValueTypeXmlAdapter<Object>());
 			marshaller.marshal(entity, response.getWriter());
@@ -72,5 +88,36 @@ public class XMLResponse extends AbstractResponse {
 			throw new UncheckedException(e);
 		}
 	}
+	
+	private void write(Iterator<?> iterator, Writer writer) throws Exception {
+		Map<Class<?>, Marshaller> marshallers = new HashMap<Class<?>, Marshaller>();
+		int count = 0;
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><elements>");
+		
+		while (iterator.hasNext()) {
+			Object element = iterator.next();
+			
+			if (element == null) {
+				continue;
+			}
+			
+			Marshaller marshaller = marshallers.get(element.getClass());
+			
+			if (marshaller == null) {
+				marshaller = JAXBContext.newInstance(element.getClass()).createMarshaller();
+				marshaller.setAdapter(new ValueTypeXmlAdapter<Object>());
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+				marshallers.put(element.getClass(), marshaller);
+			}
+			
+			marshaller.marshal(element, writer);
+			
+			if (++count % FLUSH == 0) {
+				writer.flush();
+			}
+		}
+		
+		writer.write("</elements>");
+	}
 
 }
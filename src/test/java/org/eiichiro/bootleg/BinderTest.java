@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.eiichiro.reverb.lang.UncheckedException;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class BinderTest {
+
+	public static class BinderTestObject {
+		
+		static String constant = "constant";
+		
+		private int i;
+		
+		private String s;
+		
+		private final Long l = null;
+		
+		List<String> strings;
+		
+	}
+	
+	public static class BinderTestUnconstructable {
+		
+		public BinderTestUnconstructable(String s) {}
+		
+	}
+	
+	public static class BinderTestFailing {
+		
+		public BinderTestFailing() throws IOException {
+			throw new IOException();
+		}
+		
+	}
+	
+	public static class BinderTestError {
+		
+		public BinderTestError() {
+			throw new LinkageError();
+		}
+		
+	}
+	
+	@Test
+	public void testBinder() throws Exception {
+		Binder binder = Binder.of(BinderTestObject.class);
+		assertSame(binder, Binder.of(BinderTestObject.class));
+		List<Binder.Property> properties = binder.properties();
+		assertThat(properties.size(), is(4));
+		assertThat(properties.get(0).name(), is("i"));
+		assertThat(properties.get(3).type().toString(), is("java.util.List<java.lang.String>"));
+		
+		BinderTestObject object = (BinderTestObject) binder.newInstance();
+		properties.get(0).set(object, 10);
+		properties.get(1).set(object, "string");
+		properties.get(2).set(object, 20L);
+		assertThat(object.i, is(10));
+		assertThat(object.s, is("string"));
+		Field l = BinderTestObject.class.getDeclaredField("l");
+		l.setAccessible(true);
+		assertThat(l.get(object), is((Object) 20L));
+		
+		try {
+			properties.get(0).set(object, "string");
+			fail();
+		} catch (ClassCastException e) {}
+		
+		try {
+			Binder.of(BinderTestUnconstructable.class).newInstance();
+			fail();
+		} catch (InstantiationException e) {}
+		
+		try {
+			Binder.of(BinderTestFailing.class).newInstance();
+			fail();
+		} catch (UncheckedException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+		
+		try {
+			Binder.of(BinderTestError.class).newInstance();
+			fail();
+		} catch (LinkageError e) {}
+		
+		try {
+			Binder.of(null);
+			fail();
+		} catch (IllegalArgumentException e) {}
+	}
+	
+}
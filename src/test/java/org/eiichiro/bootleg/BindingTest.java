@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eiichiro.bootleg.annotation.Header;
+import org.eiichiro.bootleg.annotation.Query;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class BindingTest {
+
+	public static class BindingTestEndpoint {
+		
+		public void method(HttpServletRequest request, 
+				@Deprecated @Query("a") @Header("a") int a, 
+				@Query("b") List<String> b, 
+				@Query("c") String[] c, 
+				@Query("d") Set<Object> d, 
+				UserDefinedObject1 e) {}
+		
+	}
+	
+	@Test
+	public void testBinding() throws Exception {
+		Binding binding = new Binding(BindingTestEndpoint.class.getDeclaredMethods()[0]);
+		assertThat(binding.size(), is(6));
+		assertThat(binding.get(0).category, is(Binding.Category.BUILTIN));
+		assertThat(binding.get(1).category, is(Binding.Category.PRIMITIVE));
+		assertThat(binding.get(1).sources.size(), is(2));
+		assertTrue(binding.get(1).sources.get(0) instanceof Query);
+		assertTrue(binding.get(1).sources.get(1) instanceof Header);
+		assertThat(binding.get(2).category, is(Binding.Category.SUPPORTED_COLLECTION));
+		assertThat(binding.get(2).type.toString(), is("java.util.List<java.lang.String>"));
+		assertThat(binding.get(3).category, is(Binding.Category.ARRAY));
+		assertThat(binding.get(4).category, is(Binding.Category.SUPPORTED_COLLECTION));
+		assertThat(binding.get(5).category, is(Binding.Category.OTHER));
+		assertTrue(binding.get(5).sources.isEmpty());
+		
+		try {
+			binding.get(1).sources.clear();
+			fail();
+		} catch (UnsupportedOperationException e) {}
+	}
+	
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class ConventionTest {
+
+	@Test
+	public void testEndpoint() {
+		Convention convention = new Convention(Arrays.<Class<?>>asList(
+				RouteTestEndpoint.class, RoutingTestEndpoint.class));
+		String uri = "/path/to/routetestendpoint/METHOD1";
+		Convention.Table<Method> endpoint = convention.endpoint(uri, 9, 26);
+		assertNotNull(endpoint);
+		assertThat(endpoint.get(uri, 27, uri.length()).getName(), is("method1"));
+		assertThat(endpoint.get(uri, 27, uri.length()).getDeclaringClass().getName(), is(RouteTestEndpoint.class.getName()));
+		assertNull(endpoint.get(uri, 27, uri.length() - 1));
+		assertNull(endpoint.get(uri, 27, 27));
+		uri = "/RoutingTestEndpoint/method2";
+		assertThat(convention.endpoint(uri, 1, 20).get(uri, 21, uri.length()).getName(), is("method2"));
+		assertNull(convention.endpoint(uri, 1, 19));
+		assertNull(convention.endpoint(uri, 0, 0));
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class CookiesTest {
+
+	@Test
+	public void testCookies() {
+		Cookies cookies = new Cookies(request(null, "$Version=1; a=1; b=\"quoted value\"; a=2; c=; d", "e=5"));
+		assertThat(cookies.get("a"), is("1"));
+		assertThat(cookies.get("b"), is("quoted value"));
+		assertThat(cookies.get("c"), is(""));
+		assertNull(cookies.get("d"));
+		assertThat(cookies.get("e"), is("5"));
+		assertNull(cookies.get("$Version"));
+		
+		// Quoted values keep the separators; ',' separates the cookies (RFC 2965).
+		cookies = new Cookies(request(null, "$Version=\"1\"; a=\"x;y,z\"; $Path=\"/\", b=\"q\\\"q\" , c=3,d = 4"));
+		assertThat(cookies.get("a"), is("x;y,z"));
+		assertThat(cookies.get("b"), is("q\"q"));
+		assertThat(cookies.get("c"), is("3"));
+		assertThat(cookies.get("d"), is("4"));
+		
+		// ',' in the unquoted value is kept unless the header is RFC 2965.
+		cookies = new Cookies(request(null, "a=x,y; b=1,c=2"));
+		assertThat(cookies.get("a"), is("x,y"));
+		assertThat(cookies.get("b"), is("1,c=2"));
+		assertNull(cookies.get("c"));
+		assertNull(cookies.get("$Path"));
+		
+		cookies = new Cookies(request(null, "s[1]=b;s[0]=a;s[10]=c;t=t"));
+		assertThat(cookies.index().get("s").toString(), is("[s[0], s[1], s[10]]"));
+		assertTrue(cookies.index().get("t").isEmpty());
+		
+		cookies = new Cookies(request(new Cookie[] {new Cookie("a", "1"), new Cookie("a", "2")}));
+		assertThat(cookies.get("a"), is("1"));
+		assertNull(new Cookies(request(null)).get("a"));
+		
+		// The cookies of the wrapped request are taken from getCookies().
+		cookies = new Cookies(new HttpServletRequestWrapper(request(new Cookie[] {new Cookie("a", "wrapped")}, "a=header")) {
+			
+			@Override
+			public Cookie[] getCookies() {
+				return new Cookie[] {new Cookie("a", "overridden")};
+			}
+			
+		});
+		assertThat(cookies.get("a"), is("overridden"));
+	}
+	
+	private static HttpServletRequest request(final Cookie[] cookies, final String... headers) {
+		return (HttpServletRequest) Proxy.newProxyInstance(CookiesTest.class.getClassLoader(), 
+				new Class<?>[] {HttpServletRequest.class}, new InvocationHandler() {
+			
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("getHeaders")) {
+					return Collections.enumeration(Arrays.asList(headers));
+				} else if (method.getName().equals("getCookies")) {
+					return cookies;
+				}
+				
+				throw new UnsupportedOperationException(method.getName());
+			}
+			
+		});
+	}
+	
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.eiichiro.bootleg.annotation.Accepts;
+import org.eiichiro.bootleg.annotation.Allows;
+import org.eiichiro.bootleg.annotation.Generates;
+import org.eiichiro.bootleg.annotation.Negotiated;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class EndpointDescriptorTest {
+
+	public static class EndpointDescriptorTestEndpoint {
+		
+		public void all() {}
+		
+		@Allows({Verb.GET, Verb.PUT})
+		@Accepts({MediaType.APPLICATION_JSON, "text/"})
+		@Generates(MediaType.APPLICATION_XML)
+		@Negotiated
+		public void some(int i) {}
+		
+		@Allows(Verb.POST)
+		@Negotiated
+		public void post() {}
+		
+	}
+	
+	@Test
+	public void testOf() throws Exception {
+		EndpointDescriptor descriptor = EndpointDescriptor.of(EndpointDescriptorTestEndpoint.class.getMethod("all"));
+		assertSame(descriptor, EndpointDescriptor.of(EndpointDescriptorTestEndpoint.class.getMethod("all")));
+		assertThat(descriptor.toString(), is(EndpointDescriptorTestEndpoint.class.getName() + "#all"));
+		
+		for (Verb verb : Verb.values()) {
+			assertTrue(descriptor.allows(verb));
+		}
+		
+		assertTrue(descriptor.accepts(null));
+		assertTrue(descriptor.accepts("image/png"));
+		assertNull(descriptor.generates());
+		assertFalse(descriptor.negotiated());
+		assertThat(descriptor.binding().size(), is(0));
+		
+		descriptor = EndpointDescriptor.of(EndpointDescriptorTestEndpoint.class.getMethod("some", int.class));
+		assertTrue(descriptor.allows(Verb.GET));
+		assertTrue(descriptor.allows(Verb.HEAD));
+		assertTrue(descriptor.allows(Verb.PUT));
+		assertFalse(descriptor.allows(Verb.POST));
+		assertFalse(descriptor.allows(Verb.DELETE));
+		assertTrue(descriptor.accepts(MediaType.APPLICATION_JSON));
+		assertTrue(descriptor.accepts(MediaType.APPLICATION_JSON + "; charset=UTF-8"));
+		assertTrue(descriptor.accepts(MediaType.TEXT_PLAIN));
+		assertFalse(descriptor.accepts(MediaType.APPLICATION_XML));
+		assertFalse(descriptor.accepts(null));
+		assertThat(descriptor.generates(), is(MediaType.APPLICATION_XML));
+		assertFalse(descriptor.negotiated());
+		assertThat(descriptor.binding().size(), is(1));
+		assertTrue(descriptor.accepts(MediaType.TEXT_HTML + ";charset=UTF-8"));
+		assertFalse(descriptor.accepts("text"));
+		
+		DefaultConfiguration configuration = new DefaultConfiguration();
+		assertSame(configuration.responseTypes().get(MediaType.APPLICATION_XML), 
+				descriptor.responseType(configuration));
+		assertSame(descriptor.responseType(configuration), descriptor.responseType(configuration));
+		DefaultConfiguration another = new DefaultConfiguration();
+		another.responseTypes().put(MediaType.APPLICATION_XML, GenericResponse.class);
+		assertSame(GenericResponse.class, descriptor.responseType(another));
+		
+		descriptor = EndpointDescriptor.of(EndpointDescriptorTestEndpoint.class.getMethod("post"));
+		assertTrue(descriptor.allows(Verb.POST));
+		assertFalse(descriptor.allows(Verb.HEAD));
+		assertTrue(descriptor.negotiated());
+	}
+	
+}
@@ -180,6 +180,8 @@ public class GenericRequestTest {
 		System.out.println(res);
 		response.parse(res);
 		assertThat(response.getStatus(), is(200));
+		// Neither @Session nor @Application parameter creates the session.
+		assertThat(response.getHeader("Set-Cookie"), nullValue());
 		request.reset();
 		request.setURI("/bootleg/GenericRequestTestEndpoint/clearApplication");
 		request.setMethod("GET");
@@ -229,6 +231,14 @@ public class GenericRequestTest {
 		System.out.println(res);
 		response.parse(res);
 		assertThat(response.getStatus(), is(200));
+		
+		request.setURI("/bootleg/typed/2147483647/007");
+		req = request.generate();
+		System.out.println(req);
+		res = tester.getResponses(req);
+		System.out.println(res);
+		response.parse(res);
+		assertThat(response.getStatus(), is(200));
 	}
 
 }
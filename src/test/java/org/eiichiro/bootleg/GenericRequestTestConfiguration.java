@@ -27,6 +27,7 @@ public class GenericRequestTestConfiguration extends DefaultConfiguration {
 	public Routing routing() {
 		Routing routing = super.routing();
 		routing.add("/{int}/{char}/{strings}/{type1}/{type2}/{type3}/{userDefinedType3Value}", GenericRequestTestEndpoint.class, "testPath");
+		routing.add("/typed/{id:int}/{code:int}", GenericRequestTestEndpoint.class, "testTypedPath");
 		return routing;
 	}
 	
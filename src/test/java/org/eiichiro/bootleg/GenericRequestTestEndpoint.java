@@ -375,4 +375,16 @@ public class GenericRequestTestEndpoint {
 		assertThat(type32.getUserDefinedType3Value(), is("goodbye"));
 	}
 	
+	public void testTypedPath(
+			@Path("id") long id, 							// Parsed for the declared type.
+			@Path("id") Integer boxed, 						// Typed path variable.
+			@Path("id") Object object, 						// Typed path variable.
+			@Path("code") String code) {					// Raw path segment.
+		System.out.println("GenericRequestTestEndpoint#testTypedPath");
+		assertThat(id, is(2147483647L));
+		assertThat(boxed, is(2147483647));
+		assertThat(object, is((Object) 2147483647));
+		assertThat(code, is("007"));
+	}
+	
 }
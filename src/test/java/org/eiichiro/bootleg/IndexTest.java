@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class IndexTest {
+
+	@Test
+	public void testGet() {
+		Index index = new Index(Collections.enumeration(Arrays.asList(
+				"a[10]", "b", "a[2]", "a[x]", "a[0][1]", "a[1]", "ab[0]", "a[0][0]", "[0]", "a[]")));
+		assertThat(index.get("a").toString(), is("[a[1], a[2], a[10], a[0][0], a[0][1], a[], a[x]]"));
+		assertThat(index.get("ab").toString(), is("[ab[0]]"));
+		assertThat(index.get("a[0]").toString(), is("[a[0][0], a[0][1]]"));
+		assertTrue(index.get("a[3]").isEmpty());
+		assertTrue(index.get("b").isEmpty());
+		assertTrue(index.get("c").isEmpty());
+		assertTrue(index.get("").isEmpty());
+	}
+	
+}
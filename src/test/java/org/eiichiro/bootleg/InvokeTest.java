@@ -19,6 +19,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.testing.HttpTester;
 import org.eclipse.jetty.testing.ServletTester;
@@ -80,6 +83,133 @@ public class InvokeTest {
 		System.out.println(res);
 		response.parse(res);
 		assertThat(response.getStatus(), is(500));
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/async");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getContent(), is("async"));
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/asyncFail");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(404));
 	}
-
+	
+	/**
+	 * Test method for {@link org.eiichiro.bootleg.Invoke#applyAsync(org.eiichiro.bootleg.WebContext)}.
+	 * @throws Exception 
+	 */
+	@Test
+	public void testApplyAsync() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		Map<String, String> initParams = new HashMap<String, String>();
+		initParams.put(BootlegFilter.ASYNC, "true");
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/InvokeTestEndpoint/succeed");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/fail");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(500));
+	}
+	
+	@Test
+	public void testExecutor() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		Map<String, String> initParams = new HashMap<String, String>();
+		initParams.put(DefaultConfiguration.EXECUTOR, "2");
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		// The synchronous pipeline invokes on the Servlet container thread.
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/InvokeTestEndpoint/thread");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertFalse(response.getContent().startsWith("bootleg-invoke-"));
+		
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		initParams.put(BootlegFilter.ASYNC, "true");
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertTrue(response.getContent().startsWith("bootleg-invoke-"));
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/fail");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(500));
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/async");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getContent(), is("async"));
+		
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		initParams.put(DefaultConfiguration.EXECUTOR, "virtual");
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		request.setURI("/bootleg/InvokeTestEndpoint/succeed");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+	}
+	@Test
+	public void testSlowEndpoint() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		Map<String, String> initParams = new HashMap<String, String>();
+		initParams.put(BootlegFilter.ASYNC, "true");
+		initParams.put(DefaultConfiguration.EXECUTOR, "2");
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		// The response is sent on the executor thread after the Web endpoint 
+		// method has returned.
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/InvokeTestEndpoint/slow");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		
+		for (int i = 0; i < 3; i++) {
+			response.parse(tester.getResponses(request.generate()));
+			assertThat(response.getStatus(), is(200));
+			assertThat(response.getContent(), is("slow"));
+		}
+		
+		request.setURI("/bootleg/InvokeTestEndpoint/thread");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertTrue(response.getContent().startsWith("bootleg-invoke-"));
+	}
+	
 }
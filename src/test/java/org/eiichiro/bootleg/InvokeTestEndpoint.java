@@ -15,6 +15,9 @@
  */
 package org.eiichiro.bootleg;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.eiichiro.bootleg.annotation.Endpoint;
 
 /**
@@ -29,4 +32,35 @@ public class InvokeTestEndpoint {
 		throw new RuntimeException();
 	}
 	
+	public String thread() {
+		return Thread.currentThread().getName();
+	}
+	
+	public String slow() throws InterruptedException {
+		Thread.sleep(200);
+		return "slow";
+	}
+	
+	public CompletionStage<String> async() {
+		final CompletableFuture<String> future = new CompletableFuture<String>();
+		new Thread() {
+			
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {}
+				
+				future.complete("async");
+			}
+			
+		}.start();
+		return future;
+	}
+	
+	public CompletionStage<String> asyncFail() {
+		CompletableFuture<String> future = new CompletableFuture<String>();
+		future.completeExceptionally(new WebException(404));
+		return future;
+	}
+	
 }
@@ -0,0 +1,100 @@
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class MetricsTest {
+
+	@Test
+	public void testMetrics() throws Exception {
+		final Metrics metrics = new Metrics(50, 99.9);
+		Pipeline<WebContext> pipeline = new Pipeline<WebContext>();
+		pipeline.set("Route", new Predicate<WebContext>() {
+
+			public boolean apply(WebContext context) {
+				try {
+					context.method(MetricsTest.class.getMethod("testMetrics"));
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				
+				return true;
+			}
+			
+		});
+		pipeline.set("", new Function<WebContext, WebContext>() {
+
+			public WebContext apply(WebContext context) {
+				return context;
+			}
+			
+		});
+		pipeline.listener(metrics);
+		
+		for (int i = 0; i < 100; i++) {
+			pipeline.apply(new WebContext(null, null, null, null));
+		}
+		
+		Map<String, Metrics.Statistics> stages = metrics.getStages();
+		assertThat(stages.size(), is(2));
+		assertThat(stages.get("Route").getCount(), is(100L));
+		assertThat(stages.get("Stage-1").getCount(), is(100L));
+		assertThat(stages.get("Route").getPercentiles().keySet().toString(), is("[p50, p99.9]"));
+		assertTrue(stages.get("Route").getPercentiles().get("p50") <= stages.get("Route").getMax());
+		Map<String, Metrics.Statistics> endpoints = metrics.getEndpoints();
+		assertThat(endpoints.size(), is(1));
+		assertThat(endpoints.get(MetricsTest.class.getName() + "#testMetrics").getCount(), is(100L));
+		
+		metrics.register("org.eiichiro.bootleg:type=Metrics,name=MetricsTest");
+		
+		try {
+			TabularData data = (TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(
+					new ObjectName("org.eiichiro.bootleg:type=Metrics,name=MetricsTest"), "Stages");
+			assertThat(data.size(), is(2));
+		} finally {
+			metrics.unregister();
+		}
+		
+		metrics.reset();
+		assertTrue(metrics.getStages().isEmpty());
+		
+		try {
+			new Metrics(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), is("Parameter 'percentiles' must be greater than [0] and less than or equal to [100]"));
+		}
+	}
+	
+	@Test
+	public void testHistogram() {
+		Histogram histogram = new Histogram();
+		assertThat(histogram.percentile(99), is(0L));
+		
+		for (long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000);
+		}
+		
+		assertThat(histogram.count(), is(1000L));
+		assertThat(histogram.max(), is(1000000L));
+		assertTrue(Math.abs(histogram.mean() - 500500) < 1);
+		assertTrue(Math.abs(histogram.percentile(50) - 500000) <= 500000 / 16);
+		assertTrue(Math.abs(histogram.percentile(99) - 990000) <= 990000 / 16);
+		assertThat(histogram.percentile(100), is(1000000L));
+	}
+	
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class ParserTest {
+
+	private static final String[] values = {
+		"0", "12", " 12 ", "-12", "+5", "-", "+", "", " ", "abc", "1.5", "-1.5", 
+		".5", "5.", "1e3", "1E-3", "1e", "1.5d", "2f", "1.5x", "NaN", "-Infinity", 
+		"127", "128", "-128", "-129", "32767", "32768", "2147483647", "2147483648", 
+		"-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808", 
+		"-9223372036854775808", "-09223372036854775808", "-9223372036854775809", 
+		"99999999999999999999", "-0", "-00", 
+		"true", "TRUE", "yes", "y", "Y", "on", "1", "false", "no", "n", "off", 
+		" true", "truee", "0x10"
+	};
+	
+	@Test
+	public void testParse() {
+		for (Class<?> type : new Class<?>[] {Integer.TYPE, Integer.class, Long.TYPE, Long.class, 
+				Short.TYPE, Short.class, Byte.TYPE, Byte.class, Double.TYPE, Double.class, 
+				Float.TYPE, Float.class, Boolean.TYPE, Boolean.class}) {
+			Parser parser = Parser.of(type);
+			assertNotNull(parser);
+			
+			for (String value : values) {
+				Object parsed = parser.parse(value);
+				
+				if (parsed == Parser.UNPARSED) {
+					continue;
+				} else if (parsed == Parser.INVALID) {
+					parsed = parser.defaultValue;
+				}
+				
+				assertThat(type + " [" + value + "]", parsed, is(ConvertUtils.convert(value, type)));
+			}
+		}
+		
+		assertNull(Parser.of(String.class));
+		assertThat(Parser.of(Integer.TYPE).parse("abc"), is(Parser.INVALID));
+		assertThat(Parser.of(Double.TYPE).parse("0x1p3"), is(Parser.UNPARSED));
+	}
+	
+	@Test
+	public void testOf() {
+		Converter converter = ConvertUtils.lookup(Integer.class);
+		assertNotNull(Types.getParser(Integer.class));
+		
+		try {
+			// Same class as the standard converter but not the same configuration.
+			Types.addCoreValueType(Integer.class, new IntegerConverter());
+			assertFalse(Types.hasStandardConverter(Integer.class));
+			assertNull(Types.getParser(Integer.class));
+			Types.addCoreValueType(Integer.class, new LinkConverter());
+			assertNull(Types.getParser(Integer.class));
+			assertNotNull(Types.getParser(Integer.TYPE));
+		} finally {
+			Types.addCoreValueType(Integer.class, converter);
+		}
+		
+		assertTrue(Types.hasStandardConverter(Integer.class));
+		assertNotNull(Types.getParser(Integer.class));
+		
+		try {
+			// Registered directly after the classification is cached.
+			ConvertUtils.register(new IntegerConverter(), Integer.class);
+			assertFalse(Types.hasStandardConverter(Integer.class));
+			assertNull(Types.getParser(Integer.class));
+		} finally {
+			ConvertUtils.register(converter, Integer.class);
+		}
+		
+		assertTrue(Types.hasStandardConverter(Integer.class));
+		assertNotNull(Types.getParser(Integer.class));
+	}
+	
+}
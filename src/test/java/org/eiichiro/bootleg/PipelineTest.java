@@ -20,6 +20,9 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 
 import org.eiichiro.bootleg.Pipeline;
 import org.junit.After;
@@ -399,4 +402,147 @@ public class PipelineTest {
 		pipeline.apply(new ArrayList<String>());
 	}
 
+	/**
+	 * Test method for {@link org.eiichiro.bootleg.Pipeline#compile()}.
+	 */
+	@Test
+	public void testCompile() {
+		Pipeline<List<String>> pipeline = new Pipeline<List<String>>();
+		pipeline.set("function", new Function1(0));
+		pipeline.set(new Predicate1(1));
+		Pipeline.Compiled<List<String>> compiled = pipeline.compile();
+		pipeline.set(new Function1(2));
+		assertThat(compiled.toString(), is("Stage-0 [function] -> Stage-1 [org.eiichiro.bootleg.PipelineTest$Predicate1]"));
+		List<String> strings = compiled.apply(new ArrayList<String>());
+		assertThat(strings.size(), is(2));
+		assertThat(pipeline.apply(new ArrayList<String>()).size(), is(3));
+		pipeline.remove(2);
+		assertThat(pipeline.apply(new ArrayList<String>()).size(), is(2));
+		
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(new Predicate<List<String>>() {
+			
+			public boolean apply(List<String> strings) {
+				return false;
+			}
+			
+		});
+		pipeline.set(new Function1(0));
+		strings = new ArrayList<String>();
+		assertThat(pipeline.compile().apply(strings), is(strings));
+		assertTrue(strings.isEmpty());
+		
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(new Function<List<String>, List<String>>() {
+			
+			public List<String> apply(List<String> strings) {
+				return null;
+			}
+			
+		});
+		pipeline.set(new Function1(0));
+		assertNull(pipeline.compile().apply(new ArrayList<String>()));
+	}
+
+	private static class AsyncFunction1 extends Function1 implements Pipeline.AsyncStage<List<String>> {
+
+		final CompletableFuture<List<String>> future = new CompletableFuture<List<String>>();
+		
+		AsyncFunction1(int i) {
+			super(i);
+		}
+		
+		public CompletionStage<List<String>> applyAsync(List<String> strings) {
+			strings.add("async");
+			return future;
+		}
+		
+	}
+	
+	private static class AsyncPredicate1 extends Predicate1 implements Pipeline.AsyncStage<List<String>> {
+
+		final CompletableFuture<List<String>> future = new CompletableFuture<List<String>>();
+		
+		AsyncPredicate1(int i) {
+			super(i);
+		}
+		
+		public CompletionStage<List<String>> applyAsync(List<String> strings) {
+			strings.add("async");
+			return future;
+		}
+		
+	}
+	
+	/**
+	 * Test method for {@link org.eiichiro.bootleg.Pipeline.Compiled#applyAsync(java.lang.Object)}.
+	 */
+	@Test
+	public void testApplyAsync() throws Exception {
+		Pipeline<List<String>> pipeline = new Pipeline<List<String>>();
+		AsyncFunction1 async = new AsyncFunction1(1);
+		pipeline.set(new Function1(0));
+		pipeline.set(async);
+		pipeline.set(new Predicate1(2));
+		List<String> strings = new ArrayList<String>();
+		CompletableFuture<List<String>> future = pipeline.compile().applyAsync(strings).toCompletableFuture();
+		assertFalse(future.isDone());
+		assertThat(strings.toString(), is("[0, async]"));
+		async.future.complete(strings);
+		assertThat(future.get(), is(strings));
+		assertThat(strings.toString(), is("[0, async, 2]"));
+		
+		// Synchronous pipeline runs AsyncStage as Function.
+		strings = pipeline.apply(new ArrayList<String>());
+		assertThat(strings.toString(), is("[0, 1, 2]"));
+		
+		async = new AsyncFunction1(1);
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(async);
+		pipeline.set(new Function1(2));
+		future = pipeline.compile().applyAsync(new ArrayList<String>()).toCompletableFuture();
+		async.future.complete(null);
+		assertNull(future.get());
+		
+		// Stopped by Predicate; the stream object is kept as apply(Object).
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(new Function1(0));
+		pipeline.set(new Predicate1(1) {
+			
+			@Override
+			public boolean apply(List<String> strings) {
+				return false;
+			}
+			
+		});
+		pipeline.set(new Function1(2));
+		strings = new ArrayList<String>();
+		future = pipeline.compile().applyAsync(strings).toCompletableFuture();
+		assertThat(future.get(), is(strings));
+		assertThat(pipeline.compile().apply(new ArrayList<String>()).toString(), is("[0]"));
+		
+		AsyncPredicate1 predicate = new AsyncPredicate1(1);
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(predicate);
+		pipeline.set(new Function1(2));
+		strings = new ArrayList<String>();
+		future = pipeline.compile().applyAsync(strings).toCompletableFuture();
+		predicate.future.complete(null);
+		assertThat(future.get(), is(strings));
+		assertThat(strings.toString(), is("[async]"));
+		
+		async = new AsyncFunction1(1);
+		pipeline = new Pipeline<List<String>>();
+		pipeline.set(async);
+		future = pipeline.compile().applyAsync(new ArrayList<String>()).toCompletableFuture();
+		async.future.completeExceptionally(new IllegalStateException());
+		
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
 }
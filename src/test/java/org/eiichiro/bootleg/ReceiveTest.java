@@ -18,6 +18,12 @@ package org.eiichiro.bootleg;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import javax.servlet.ServletContext;
+
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.testing.HttpTester;
 import org.eclipse.jetty.testing.ServletTester;
@@ -173,5 +179,47 @@ public class ReceiveTest {
 		response.parse(res);
 		assertThat(response.getStatus(), is(415));
 	}
+	
+	public static class OverriddenRequest extends GenericRequest {
+		
+		@Override
+		public Object get(Type type, List<Annotation> sources) {
+			return (type == String.class) ? "overridden" : super.get(type, sources);
+		}
+		
+	}
+	
+	public static class OverriddenConfiguration extends DefaultConfiguration {
+		
+		@Override
+		public void init(ServletContext context) {
+			super.init(context);
+			requestTypes().put(MediaType.TEXT_PLAIN, OverriddenRequest.class);
+		}
+		
+	}
+	
+	@Test
+	public void testReceiveOverridden() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		tester.getContext().getInitParams().put(
+				BootlegFilter.CONFIGURATION, OverriddenConfiguration.class.getName());
+		tester.start();
+		
+		// Parameters are constructed through the overridden Request#get(Type, List).
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/ReceiveTestEndpoint/overridden");
+		request.setMethod("POST");
+		request.setHeader("Host", "");
+		request.setHeader("Content-Type", MediaType.TEXT_PLAIN);
+		request.setContent("value");
+		HttpTester response = new HttpTester();
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+	}
 
 }
@@ -41,4 +41,10 @@ public class ReceiveTestEndpoint {
 	@Accepts(MediaType.APPLICATION_XML)
 	public void acceptXML() {}
 	
+	public void overridden(String value) {
+		if (!"overridden".equals(value)) {
+			throw new WebException(400);
+		}
+	}
+	
 }
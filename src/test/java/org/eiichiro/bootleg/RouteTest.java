@@ -160,6 +160,15 @@ public class RouteTest {
 		response.parse(res);
 		assertThat(response.getStatus(), is(200));
 		assertThat(response.getContent(), is("method2"));
+		// HEAD is routed to GET.
+		request.setMethod("HEAD");
+		req = request.generate();
+		System.out.println(req);
+		res = tester.getResponses(req);
+		System.out.println(res);
+		// HttpTester cannot parse the response to HEAD with Content-Length.
+		assertTrue(res, res.startsWith("HTTP/1.1 200 "));
+		assertFalse(res.contains("method1"));
 		request.setMethod("PUT");
 		req = request.generate();
 		System.out.println(req);
@@ -195,5 +204,109 @@ public class RouteTest {
 		assertThat(response.getStatus(), is(200));
 		assertThat(response.getContent(), is("method2"));
 	}
-
+	
+	@Test
+	public void testCache() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		Map<String, String> initParams = new HashMap<String, String>();
+		initParams.put(BootlegFilter.CONFIGURATION, CacheTestConfiguration.class.getName());
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/RouteTestEndpoint/method1");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method1"));
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method1"));
+		assertThat(CacheTestConfiguration.route.misses(), is(1L));
+		assertThat(CacheTestConfiguration.route.hits(), is(1L));
+		
+		request.setURI("/bootleg/path/to/endpoint/m");
+		request.setMethod("POST");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method2"));
+		request.setMethod("GET");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method1"));
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method1"));
+		assertThat(CacheTestConfiguration.route.misses(), is(3L));
+		assertThat(CacheTestConfiguration.route.hits(), is(2L));
+		assertTrue(CacheTestConfiguration.route.evictions() > 0L);
+		
+		request.setURI("/bootleg/RouteTestEndpoint/method2");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(404));
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(404));
+		assertThat(CacheTestConfiguration.route.misses(), is(5L));
+	}
+	
+	@Test
+	public void testRouting() throws Exception {
+		tester.stop();
+		tester = new ServletTester();
+		tester.setContextPath("/bootleg");
+		tester.addFilter(BootlegFilter.class, "/*", 0);
+		tester.addServlet(DefaultServlet.class, "/");
+		Map<String, String> initParams = new HashMap<String, String>();
+		initParams.put(BootlegFilter.CONFIGURATION, CacheTestConfiguration.class.getName());
+		tester.getContext().setInitParams(initParams);
+		tester.start();
+		
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/feature/method");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(404));
+		
+		Routing routing = new Routing();
+		routing.add("/feature/{name}", org.eiichiro.bootleg.RouteTestEndpoint.class, "method1");
+		CacheTestConfiguration.route.routing(routing);
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method1"));
+		request.setURI("/bootleg/RouteTestEndpoint/method2");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getContent(), is("method2"));
+		
+		try {
+			routing.add("/feature", org.eiichiro.bootleg.RouteTestEndpoint.class, "method2");
+			fail();
+		} catch (IllegalStateException e) {
+			e.printStackTrace();
+		}
+		
+		try {
+			CacheTestConfiguration.route.routing(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), is("Parameter 'routing' must not be [null]"));
+		}
+	}
+	
+	public static class CacheTestConfiguration extends RouteTestConfiguration {
+		
+		private static Route route;
+		
+		@Override
+		public Pipeline<WebContext> pipeline() {
+			Pipeline<WebContext> pipeline = super.pipeline();
+			route = new Route(2);
+			pipeline.remove(0);
+			pipeline.set(0, Route.class.getSimpleName(), route);
+			return pipeline;
+		}
+		
+	}
+	
 }
@@ -113,6 +113,8 @@ public class RoutingTest {
 		assertThat(routing.route("/path/to/endpoint/method").get(0).getValue().get(Verb.POST).getName(), is("method2"));
 		assertNull(routing.route("/path/to/endpoint/method").get(0).getValue().get(Verb.PUT));
 		assertNull(routing.route("/path/to/endpoint/method").get(0).getValue().get(null));
+		assertNull(routing.route("/path/to/endpoint/method").get(0).getValue().get(Verb.HEAD));
+		assertThat(routing.route("/path/to/endpoint/method").get(0).getValue().size(), is(2));
 		
 		routing = new Routing();
 		routing.add(Verb.GET, "/path/to/endpoint/m*", RoutingTestEndpoint.class, "method1");
@@ -187,6 +189,97 @@ public class RoutingTest {
 		assertNull(routing.route("/path/to/endpoint/method").get(1).getValue().get(null));
 	}
 
+	/**
+	 * Test method for {@link org.eiichiro.bootleg.Routing#route(java.lang.String)}.
+	 */
+	@Test
+	public void testRoute() {
+		Routing routing = new Routing();
+		routing.add("/user/{id}", RoutingTestEndpoint.class, "method1");
+		routing.add("/user/{id}/edit", RoutingTestEndpoint.class, "method2");
+		routing.add("/user/self", RoutingTestEndpoint.class, "method2");
+		assertThat(routing.route("/user/1").size(), is(1));
+		assertThat(routing.route("/user/1").get(0).getKey().template().toString(), is("/user/{id}"));
+		assertThat(routing.route("/user/self").get(0).getKey().template().toString(), is("/user/{id}"));
+		assertThat(routing.route("/user/self").get(1).getKey().template().toString(), is("/user/self"));
+		assertThat(routing.route("/user/1").get(0).getKey().get("id"), is("1"));
+		assertThat(routing.route("/user/1/edit").size(), is(2));
+		assertThat(routing.route("/user/1/edit").get(0).getKey().get("id"), is("1"));
+		assertThat(routing.route("/user/1/edit").get(0).getValue().get(null).getName(), is("method2"));
+		// Path variable spans '/'.
+		assertThat(routing.route("/user/1/edit").get(1).getKey().get("id"), is("1/edit"));
+		assertThat(routing.route("/user/1/2").size(), is(1));
+		assertThat(routing.route("/user/1/2").get(0).getKey().get("id"), is("1/2"));
+		assertThat(routing.route("/user//2").get(0).getKey().get("id"), is("/2"));
+		assertTrue(routing.route("/user/").isEmpty());
+		assertTrue(routing.route("/user").isEmpty());
+		assertTrue(routing.route("user/1").isEmpty());
+		
+		routing = new Routing();
+		routing.add("/*", RoutingTestEndpoint.class, "method1");
+		routing.add("/path/to/{end}.{point}/*", RoutingTestEndpoint.class, "method2");
+		routing.add("/path/{to}/", RoutingTestEndpoint.class, "method2");
+		assertThat(routing.route("/path/to/end.point/method").size(), is(2));
+		assertThat(routing.route("/path/to/end.point/method").get(0).getKey().template().toString(), is("/path/to/{end}.{point}/*"));
+		assertThat(routing.route("/path/to/end.point/method").get(0).getKey().get("end"), is("end"));
+		assertThat(routing.route("/path/to/end.point/method").get(0).getKey().get("point"), is("point"));
+		assertThat(routing.route("/path/to/end.point/method").get(1).getKey().template().toString(), is("/*"));
+		assertThat(routing.route("/path/to/").size(), is(2));
+		assertThat(routing.route("/path/to/").get(0).getKey().template().toString(), is("/path/{to}/"));
+		assertThat(routing.route("/path/to/").get(0).getKey().get("to"), is("to"));
+		assertThat(routing.route("/").size(), is(1));
+		
+		routing = new Routing();
+		routing.add("/files/{dir}/{name}.txt", RoutingTestEndpoint.class, "method1");
+		routing.add("/files/{dir}/{name}", RoutingTestEndpoint.class, "method2");
+		assertThat(routing.route("/files/a/b/c").size(), is(1));
+		assertThat(routing.route("/files/a/b/c").get(0).getKey().get("dir"), is("a"));
+		assertThat(routing.route("/files/a/b/c").get(0).getKey().get("name"), is("b/c"));
+		assertThat(routing.route("/files/a/b/c.txt").size(), is(2));
+		assertThat(routing.route("/files/a/b/c.txt").get(0).getKey().get("name"), is("b/c"));
+		assertThat(routing.route("/files/a/b/c.txt").get(1).getKey().get("name"), is("b/c.txt"));
+		
+		routing = new Routing();
+		routing.add("/user/{id:int}", RoutingTestEndpoint.class, "method1");
+		routing.add("/user/{name}", RoutingTestEndpoint.class, "method2");
+		routing.add("/user/{code:[a-z]{3}}/edit", RoutingTestEndpoint.class, "method2");
+		assertThat(routing.route("/user/42").size(), is(2));
+		assertThat(routing.route("/user/42").get(0).getValue().get(null).getName(), is("method1"));
+		assertThat(routing.route("/user/42").get(0).getKey().value("id"), is((Object) 42));
+		assertThat(routing.route("/user/name").size(), is(1));
+		assertThat(routing.route("/user/name").get(0).getValue().get(null).getName(), is("method2"));
+		assertThat(routing.route("/user/abc/edit").size(), is(2));
+		assertThat(routing.route("/user/abc/edit").get(0).getKey().get("code"), is("abc"));
+		assertThat(routing.route("/user/abc/edit").get(1).getKey().get("name"), is("abc/edit"));
+		assertThat(routing.route("/user/abcd/edit").size(), is(1));
+		assertThat(routing.route("/user/abcd/edit").get(0).getKey().get("name"), is("abcd/edit"));
+	}
+
+	@Test
+	public void testRouteVerb() {
+		Routing routing = new Routing();
+		routing.add(Verb.GET, "/path/to/endpoint/m*", RoutingTestEndpoint.class, "method1");
+		routing.add("/path/to/endpoint/method", RoutingTestEndpoint.class, "method2");
+		routing.add(Verb.PUT, "/path/{to}/{endpoint}", RoutingTestEndpoint.class, "method1");
+		URITemplate.Match match = routing.route("/path/to/endpoint/method", Verb.GET);
+		assertThat(match.template().toString(), is("/path/to/endpoint/m*"));
+		assertThat(routing.method(match, Verb.GET).getName(), is("method1"));
+		match = routing.route("/path/to/endpoint/method", Verb.HEAD);
+		assertThat(match.template().toString(), is("/path/to/endpoint/m*"));
+		assertThat(routing.method(match, Verb.HEAD).getName(), is("method1"));
+		match = routing.route("/path/to/endpoint/method", Verb.POST);
+		assertThat(match.template().toString(), is("/path/to/endpoint/method"));
+		assertThat(routing.method(match, Verb.POST).getName(), is("method2"));
+		match = routing.route("/path/to/endpoint/method", Verb.PUT);
+		assertThat(match.template().toString(), is("/path/to/endpoint/method"));
+		match = routing.route("/path/to/endpoint/other", Verb.PUT);
+		assertThat(match.template().toString(), is("/path/{to}/{endpoint}"));
+		assertThat(match.get("to"), is("to"));
+		assertThat(match.get("endpoint"), is("endpoint/other"));
+		assertNull(routing.route("/path/to/endpoint/other", Verb.GET));
+		assertNull(routing.route("path/to/endpoint/method", Verb.GET));
+	}
+
 	/**
 	 * Test method for {@link org.eiichiro.bootleg.Routing#ignore(java.lang.String[])}.
 	 */
@@ -199,6 +292,27 @@ public class RoutingTest {
 		assertTrue(routing.ignores("png.pngpng"));
 		assertFalse(routing.ignores("pngpng"));
 		
+		routing = new Routing();
+		routing.ignore("*");
+		assertTrue(routing.ignores("/anything"));
+		assertTrue(routing.ignores(""));
+		routing = new Routing();
+		routing.ignore("*.js", "*.tar.gz", "*/method2", "/static/*", "/exact", "/a*b");
+		assertTrue(routing.ignores("/js.js"));
+		assertFalse(routing.ignores("/x.js/y"));
+		assertFalse(routing.ignores("/a.jsx"));
+		assertTrue(routing.ignores("/archive.tar.gz"));
+		assertFalse(routing.ignores("/archive.gz"));
+		assertTrue(routing.ignores("/path/to/method2"));
+		assertFalse(routing.ignores("/path/to/method3"));
+		assertTrue(routing.ignores("/static/"));
+		assertTrue(routing.ignores("/static/css/style"));
+		assertFalse(routing.ignores("/static"));
+		assertTrue(routing.ignores("/exact"));
+		assertFalse(routing.ignores("/exact/"));
+		assertTrue(routing.ignores("/a/b"));
+		assertFalse(routing.ignores("/a/c"));
+		
 		try {
 			String[] strings = null;
 			routing.ignore(strings);
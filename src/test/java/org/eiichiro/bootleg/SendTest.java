@@ -18,8 +18,12 @@ package org.eiichiro.bootleg;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.nio.file.FileSystems;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.testing.HttpTester;
@@ -80,6 +84,18 @@ public class SendTest {
 		assertThat(response.getHeader("Content-Type"), is(MediaType.APPLICATION_XML));
 		assertThat(response.getContent(), is("<message>hello</message>"));
 		
+		// HEAD sends no body.
+		request.setMethod("HEAD");
+		req = request.generate();
+		System.out.println(req);
+		res = tester.getResponses(req);
+		System.out.println(res);
+		response = head(res);
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getHeader("Content-Type"), is(MediaType.APPLICATION_XML));
+		assertFalse(res.contains("<message>hello</message>"));
+		request.setMethod("GET");
+		
 		request.setURI("/bootleg/SendTestEndpoint/generateResponse");
 		req = request.generate();
 		System.out.println(req);
@@ -121,5 +137,82 @@ public class SendTest {
 		assertThat(response.getHeader("Content-Type"), is(MediaType.TEXT_PLAIN));
 		assertThat(response.getContent(), is("<message>hello</message>"));
 	}
+	
+	@Test
+	public void testApplyHead() throws Exception {
+		// HEAD to the Web endpoint that returns Response has the same headers 
+		// as GET and no body.
+		for (String uri : new String[] {"/bootleg/SendTestEndpoint/generateResponse", 
+				"/bootleg/SendTestEndpoint/generateJSONResponse", 
+				"/bootleg/SendTestEndpoint/generateXML"}) {
+			HttpTester request = new HttpTester();
+			request.setURI(uri);
+			request.setMethod("GET");
+			request.setHeader("Host", "");
+			HttpTester get = new HttpTester();
+			get.parse(tester.getResponses(request.generate()));
+			request.setMethod("HEAD");
+			String res = tester.getResponses(request.generate());
+			System.out.println(res);
+			HttpTester head = head(res);
+			assertThat(head.getStatus(), is(get.getStatus()));
+			assertThat(head.getHeader("Content-Type"), is(get.getHeader("Content-Type")));
+			assertThat(head.getHeader("Content-Length"), is(get.getHeader("Content-Length")));
+			assertNotNull(get.getHeader("Content-Length"));
+			assertFalse(res, res.contains(get.getContent()));
+		}
+	}
+	
+	// Parses the response to HEAD request; HttpTester reads the body of 
+	// Content-Length, so the response must end with the headers.
+	private static HttpTester head(String res) throws IOException {
+		int end = res.indexOf("\r\n\r\n") + 4;
+		assertThat(res, res.length(), is(end));
+		Matcher matcher = Pattern.compile("Content-Length: (\\d+)", Pattern.CASE_INSENSITIVE).matcher(res);
+		HttpTester response = new HttpTester();
+		response.parse((matcher.find()) 
+				? res + new String(new char[Integer.parseInt(matcher.group(1))]) : res);
+		return response;
+	}
+	
+	@Test
+	public void testApplyCursor() throws Exception {
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/SendTestEndpoint/generateStream");
+		request.setMethod("GET");
+		request.setHeader("Host", "");
+		HttpTester response = new HttpTester();
+		SendTestEndpoint.closed = false;
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getContent(), is("[\"a\",\"b\",null]"));
+		assertTrue(SendTestEndpoint.closed);
+		
+		request.setURI("/bootleg/SendTestEndpoint/generateCursor");
+		SendTestEndpoint.closed = false;
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		assertThat(response.getHeader("Content-Type"), is(MediaType.APPLICATION_NDJSON));
+		assertThat(response.getContent(), is("\"1\"\n\"2\"\n\"3\"\n"));
+		assertTrue(SendTestEndpoint.closed);
+		
+		request.setURI("/bootleg/SendTestEndpoint/generateIterator");
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(200));
+		String content = response.getContent();
+		assertTrue(content, content.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><elements><userInfo>"));
+		assertThat(content.split("<userInfo>").length, is(3));
+		assertTrue(content, content.endsWith("</userInfo></elements>"));
+		
+		// Iterable is serialized as it is, not as a lazy sequence.
+		assertNull(Send.cursor(FileSystems.getDefault().getRootDirectories()));
+		
+		// The cursor is closed even if the response failed.
+		request.setURI("/bootleg/SendTestEndpoint/generateFailingStream");
+		SendTestEndpoint.closed = false;
+		response.parse(tester.getResponses(request.generate()));
+		assertThat(response.getStatus(), is(500));
+		assertTrue(SendTestEndpoint.closed);
+	}
 
 }
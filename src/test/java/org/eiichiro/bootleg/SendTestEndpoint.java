@@ -15,12 +15,19 @@
  */
 package org.eiichiro.bootleg;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 import org.eiichiro.bootleg.MediaType;
 import org.eiichiro.bootleg.Response;
 import org.eiichiro.bootleg.Responses;
 import org.eiichiro.bootleg.annotation.Endpoint;
 import org.eiichiro.bootleg.annotation.Generates;
 import org.eiichiro.bootleg.annotation.Negotiated;
+import org.eiichiro.bootleg.json.JSONResponse;
 
 /**
  * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
@@ -32,6 +39,12 @@ public class SendTestEndpoint {
 		return Responses.xml("hello");
 	}
 	
+	public Response generateJSONResponse() {
+		JSONResponse response = Responses.json(new UserInfo("a", "A", "a@eiichiro.org", "http://www.eiichiro.org/", 1));
+		response.status(201);
+		return response;
+	}
+	
 	@Generates(MediaType.APPLICATION_XML)
 	public String generateXML() {
 		return "<message>hello</message>";
@@ -47,4 +60,68 @@ public class SendTestEndpoint {
 		return "<message>hello</message>";
 	}
 	
+	static volatile boolean closed;
+	
+	@Generates(MediaType.APPLICATION_JSON)
+	public Stream<String> generateStream() {
+		return Stream.of("a", "b", null).onClose(new Runnable() {
+			
+			public void run() {
+				closed = true;
+			}
+			
+		});
+	}
+	
+	@Generates(MediaType.APPLICATION_NDJSON)
+	public Cursor<Integer> generateCursor() {
+		final Iterator<Integer> iterator = Arrays.asList(1, 2, 3).iterator();
+		return new Cursor<Integer>() {
+			
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			public Integer next() {
+				if (closed) {
+					throw new IllegalStateException("Cursor closed");
+				}
+				
+				return iterator.next();
+			}
+			
+			public void close() throws IOException {
+				closed = true;
+			}
+			
+		};
+	}
+	
+	@Generates(MediaType.APPLICATION_XML)
+	public Iterator<UserInfo> generateIterator() {
+		return Arrays.asList(
+				new UserInfo("a", "A", "a@eiichiro.org", "http://www.eiichiro.org/", 1), 
+				new UserInfo("b", "B", "b@eiichiro.org", "http://www.eiichiro.org/", 2)).iterator();
+	}
+	
+	public Response generateFailingStream() {
+		return Responses.json(Stream.of("a", "b").map(new Function<String, String>() {
+			
+			public String apply(String s) {
+				if (s.equals("b")) {
+					throw new IllegalStateException("Failed to fetch [" + s + "]");
+				}
+				
+				return s;
+			}
+			
+		}).onClose(new Runnable() {
+			
+			public void run() {
+				closed = true;
+			}
+			
+		}));
+	}
+	
 }
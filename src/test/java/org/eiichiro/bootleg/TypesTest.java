@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class TypesTest {
+
+	public static class CoreValue {
+		
+		public CoreValue(String value) {}
+		
+	}
+	
+	@Test
+	public void testClassification() throws Exception {
+		assertTrue(Types.isBuiltinType(HttpServletRequest.class));
+		assertFalse(Types.isBuiltinType(String.class));
+		assertFalse(Types.isBuiltinType(String[].class));
+		assertTrue(Types.isCollection(Collection.class));
+		assertTrue(Types.isCollection(ArrayList.class));
+		assertTrue(Types.isCollection(TypesTest.class.getDeclaredField("list").getGenericType()));
+		assertFalse(Types.isCollection(String.class));
+		assertTrue(Types.isSupportedCollection(List.class));
+		assertFalse(Types.isSupportedCollection(MyList.class));
+		assertThat(Types.getDefaultImplementationType(Set.class).getName(), is("java.util.HashSet"));
+		assertThat(Types.getDefaultImplementationType(ArrayList.class).getName(), is("java.util.ArrayList"));
+		assertTrue(Types.getEmptyCollection(List.class).isEmpty());
+		assertTrue(Types.isCoreValueType(int.class));
+		assertTrue(Types.isCoreValueType(String.class));
+		assertFalse(Types.isCoreValueType(UserDefinedValue1.class));
+		assertTrue(Types.isUserDefinedValueType(UserDefinedValue1.class));
+		assertNotNull(Types.getStringConstructor(UserDefinedValue1.class));
+		assertTrue(Types.isUserDefinedValueType(UserDefinedValue2.class));
+		assertNotNull(Types.getValueOfMethod(UserDefinedValue2.class));
+		assertFalse(Types.isUserDefinedValueType(UserDefinedObject1.class));
+		assertNull(Types.getStringConstructor(UserDefinedObject1.class));
+		assertNull(Types.getValueOfMethod(UserDefinedObject1.class));
+		
+		assertFalse(Types.isCoreValueType(CoreValue.class));
+		Types.addCoreValueType(CoreValue.class, new LinkConverter());
+		assertTrue(Types.isCoreValueType(CoreValue.class));
+	}
+	
+	List<String> list;
+	
+	@SuppressWarnings("serial")
+	private static class MyList extends ArrayList<String> {}
+	
+}
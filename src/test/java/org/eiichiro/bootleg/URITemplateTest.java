@@ -3,8 +3,10 @@ package org.eiichiro.bootleg;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.eiichiro.bootleg.URITemplate;
 import org.junit.Test;
@@ -158,6 +160,9 @@ public class URITemplateTest {
 		assertTrue(new URITemplate("/*/endpoint/method").matches("/path/to/endpoint/method"));
 		assertTrue(new URITemplate("/*").matches("/path/to/endpoint/method"));
 		assertTrue(new URITemplate("/path/to/{end}.{point}/{method}").matches("/path/to/end.poi.nt/method"));
+		assertTrue(new URITemplate("/path/to/{endpoint}").matches("/path/to/endpoint/method"));
+		assertThat(new URITemplate("/path/{to}/{endpoint}").match("/path/to/endpoint/method").get("endpoint"), is("endpoint/method"));
+		assertFalse(new URITemplate("/path/to/{endpoint:int}").matches("/path/to/1/2"));
 		assertFalse(new URITemplate("/path/to/endpoint/method").matches("/path/to/endpoint/metho"));
 		assertFalse(new URITemplate("/path/to/endpoint/method").matches("/path/to/endpoint/methodd"));
 		assertFalse(new URITemplate("/path/to/{end}.{point}/{method}").matches("/path/to/endpoint/method"));
@@ -214,6 +219,69 @@ public class URITemplateTest {
 		assertTrue(variables.isEmpty());
 	}
 
+	@Test
+	public void testMatch() {
+		assertNull(new URITemplate("/path/to/endpoint/method").match("/path/to/endpoint/metho"));
+		assertNull(new URITemplate("/path/to/{end}.{point}/{method}").match("/path/to/endpoint/method"));
+		Map<String, String> variables = new URITemplate("/path/to/endpoint/method").match("/path/to/endpoint/method");
+		assertTrue(variables.isEmpty());
+		URITemplate.Match match = new URITemplate("/path/to/{end}.{point}/{method}").match("/path/to/end.poi.nt/method");
+		assertThat(match.size(), is(3));
+		assertThat(match.get(0), is("end"));
+		assertThat(match.get("point"), is("poi.nt"));
+		assertThat(match.get("method"), is("method"));
+		assertNull(match.get("notfound"));
+		assertThat(match.template().toString(), is("/path/to/{end}.{point}/{method}"));
+		assertThat(new HashMap<String, String>(match).get("end"), is("end"));
+	}
+
+	@Test
+	public void testConstraint() {
+		URITemplate template = new URITemplate("/user/{id:int}");
+		assertThat(template.variables().get(0), is("id"));
+		assertThat(template.match("/user/42").value("id"), is((Object) 42));
+		assertThat(template.match("/user/-2147483648").value("id"), is((Object) Integer.MIN_VALUE));
+		assertNull(template.match("/user/2147483648"));
+		assertNull(template.match("/user/name"));
+		assertNull(template.match("/user/-"));
+		assertThat(new URITemplate("/user/{id:long}").match("/user/2147483648").value("id"), is((Object) 2147483648L));
+		assertNull(new URITemplate("/user/{id:long}").match("/user/9223372036854775808"));
+		template = new URITemplate("/session/{id:uuid}");
+		assertThat(template.match("/session/123e4567-e89b-12d3-a456-426614174000").value("id"), 
+				is((Object) UUID.fromString("123e4567-e89b-12d3-a456-426614174000")));
+		assertNull(template.match("/session/123e4567-e89b-12d3-a456-42661417400g"));
+		template = new URITemplate("/article/{slug:[a-z-]+}");
+		assertThat(template.match("/article/hello-world").value("slug"), is((Object) "hello-world"));
+		assertNull(template.match("/article/Hello"));
+		template = new URITemplate("/code/{code:([0-9]{3})}.{format}");
+		assertThat(template.match("/code/404.json").get("code"), is("404"));
+		assertThat(template.match("/code/404.json").get("format"), is("json"));
+		assertNull(template.match("/code/40.json"));
+		assertNull(new URITemplate("/{path:.+}").match("/path/to"));
+		assertTrue(new URITemplate("/{path:.+}").matches("/path"));
+		
+		try {
+			new URITemplate("/user/{id:}");
+			fail();
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+		
+		try {
+			new URITemplate("/user/{:int}");
+			fail();
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+		
+		try {
+			new URITemplate("/user/{id:[0-9]{3}");
+			fail();
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+	}
+
 	@Test
 	public void testCompareTo() {
 		assertTrue(new URITemplate("/path/to/endpoint/method").compareTo(new URITemplate("/path/to/endpoint/method")) == 0);
@@ -144,4 +144,23 @@ public class JSONRequestTest {
 		assertThat(response.getStatus(), is(200));
 	}
 	
+	@Test
+	public void testJSONCollection4() throws Exception {
+		HttpTester request = new HttpTester();
+		request.setURI("/bootleg/JSONRequestTestEndpoint/testJSONCollection4");
+		request.setMethod("POST");
+		request.setHeader("Host", "");
+		request.setHeader("Content-type", "application/json");
+		String json = "[{\"name\": \"x\", \"value\": {\"a\": [1]}, " 
+				+ "\"children\": [{\"name\": \"y\"}, {\"name\": \"z\", \"children\": []}]}, 1]";
+		request.setContent(json);
+		String req = request.generate();
+		System.out.println(req);
+		HttpTester response = new HttpTester();
+		String res = tester.getResponses(req);
+		System.out.println(res);
+		response.parse(res);
+		assertThat(response.getStatus(), is(200));
+	}
+	
 }
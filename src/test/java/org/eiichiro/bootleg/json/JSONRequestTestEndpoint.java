@@ -122,4 +122,16 @@ public class JSONRequestTestEndpoint {
 		}
 	}
 	
+	public void testJSONCollection4(@Body List<ProjectionTest.Node> nodes) {
+		assertThat(nodes.size(), is(2));
+		ProjectionTest.Node node = nodes.get(0);
+		assertThat(node.name, is("x"));
+		assertThat(node.children.size(), is(2));
+		assertThat(node.children.get(0).name, is("y"));
+		assertNull(node.children.get(0).children);
+		assertThat(node.children.get(1).name, is("z"));
+		assertNull(nodes.get(1).name);
+		assertNull(nodes.get(1).children);
+	}
+	
 }
@@ -112,5 +112,27 @@ public class JSONResponseTest {
 		assertThat(userInfo.interests.get(0), is("Listening to music"));
 		assertThat(userInfo.interests.get(1), is("Buddhist art"));
 	}
+	
+	static class Node {
+		
+		String name;
+		
+		Email email;
+		
+		Node next;
+		
+	}
+	
+	@Test
+	public void testGson() throws Exception {
+		Gson gson = JSONResponse.gson(Node.class);
+		assertThat(JSONResponse.gson(Node.class), sameInstance(gson));
+		Node node = new Node();
+		node.name = "1";
+		node.email = new Email("mail@eiichiro.org");
+		node.next = new Node();
+		node.next.name = "2";
+		assertThat(gson.toJson(node), is("{\"name\":\"1\",\"email\":\"mail@eiichiro.org\",\"next\":{\"name\":\"2\"}}"));
+	}
 
 }
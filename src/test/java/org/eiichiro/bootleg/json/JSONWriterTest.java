@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eiichiro.bootleg.Email;
+import org.eiichiro.bootleg.Types;
+import org.junit.Test;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class JSONWriterTest {
+
+	public static class Base {
+		
+		public String b = "base";
+		
+		int bi = 1;
+		
+	}
+	
+	public static class Sub extends Base {
+		
+		public String s = "<a href='x'>&= \u0001\"\\/\t é";
+		
+		public int pi = -5;
+		
+		int i = 9;
+		
+		Integer boxed = 7;
+		
+		long l = 3;
+		
+		double d = 1.5;
+		
+		float f = 2.5f;
+		
+		boolean z = true;
+		
+		char c = 'c';
+		
+		transient String t = "t";
+		
+		static String st = "st";
+		
+		@SerializedName("re<named") String r = "r";
+		
+		String nul = null;
+		
+		Email email = new Email("e@x");
+		
+		List<String> list = Arrays.asList("a", "b");
+		
+		List<Integer> ints = Arrays.asList(1, 2);
+		
+		int[] arr = {1, 2};
+		
+		Map<String, Integer> map = new HashMap<String, Integer>(Collections.singletonMap("k", 1));
+		
+		public Inner inner = new Inner();
+		
+		Date date = new Date(0);
+		
+		BigDecimal big = new BigDecimal("1.10");
+		
+		Object obj = "str";
+		
+		Base base = new Sub2();
+		
+	}
+	
+	public static class Sub2 extends Base {
+		
+		String s2 = "s2";
+		
+	}
+	
+	public static class Inner {
+		
+		public String x = "x";
+		
+		public Inner next;
+		
+	}
+	
+	public static class Dated {
+		
+		Date date = new Date(0);
+		
+		Long id = 1L;
+		
+	}
+	
+	// Date and Long are not registered to Gson as the value types as they are 
+	// not declared by the entity class itself.
+	public static class SubDated extends Dated {
+		
+		String s = "s";
+		
+	}
+	
+	public static class Item {
+		
+		String name = "item";
+		
+	}
+	
+	public static class Box<V> {
+		
+		V value;
+		
+		List<V> list;
+		
+	}
+	
+	public static class Holder {
+		
+		Box<Item> box = new Box<Item>();
+		
+		String name = "holder";
+		
+	}
+	
+	@Test
+	public void testWrite() throws Exception {
+		Sub sub = new Sub();
+		sub.inner.next = new Inner();
+		sub.inner.next.x = null;
+		assertThat(write(sub), is(baseline(sub)));
+		
+		sub = new Sub();
+		sub.b = null;
+		sub.inner = null;
+		sub.obj = new Object() {};
+		sub.base = new Base();
+		assertThat(write(sub), is(baseline(sub)));
+		
+		// The generic entity is written by Gson with the declared type.
+		Holder holder = new Holder();
+		holder.box.value = new Item();
+		holder.box.list = Arrays.asList(new Item(), new Item());
+		assertThat(write(holder), is(baseline(holder)));
+		assertThat(write(holder), is("{\"box\":{\"value\":{\"name\":\"item\"}," 
+				+ "\"list\":[{\"name\":\"item\"},{\"name\":\"item\"}]},\"name\":\"holder\"}"));
+		
+		SubDated subDated = new SubDated();
+		assertThat(write(subDated), is(baseline(subDated)));
+		assertTrue(write(subDated), write(subDated).contains("\"id\":1}"));
+		
+		Inner inner = new Inner();
+		inner.next = inner;
+		
+		try {
+			write(inner);
+			fail();
+		} catch (IllegalStateException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	@Test
+	public void testOf() {
+		assertNotNull(JSONWriter.of(Sub.class));
+		assertThat(JSONWriter.of(Sub.class), is(sameInstance(JSONWriter.of(Sub.class))));
+		assertNull(JSONWriter.of(String.class));
+		assertNull(JSONWriter.of(Email.class));
+		assertNull(JSONWriter.of(HashMap.class));
+		assertNull(JSONWriter.of(int[].class));
+		assertNull(JSONWriter.of(new Object() {}.getClass()));
+		assertNull(JSONWriter.of(Box.class));
+		assertNotNull(JSONWriter.of(Holder.class));
+		assertThat(JSONWriter.generate(Sub.class), is(3));
+		assertThat(JSONWriter.generate(Inner.class), is(1));
+	}
+	
+	// The Gson that JSONResponse has configured for the entity class: the value 
+	// types of the fields declared by the entity class (and the nested object 
+	// classes) are serialized by ValueTypeJsonSerializer.
+	private static String baseline(Object object) {
+		GsonBuilder builder = new GsonBuilder();
+		Set<Class<?>> values = new HashSet<Class<?>>();
+		parse(object.getClass(), values, new HashSet<Class<?>>());
+		
+		for (Class<?> value : values) {
+			builder.registerTypeAdapter(value, new ValueTypeJsonSerializer<Object>());
+		}
+		
+		return builder.create().toJson(object);
+	}
+	
+	private static void parse(Class<?> clazz, Set<Class<?>> values, Set<Class<?>> parsed) {
+		if (Types.isArray(clazz) || Types.isCollection(clazz)) {
+			parse(Types.getElementType(clazz), values, parsed);
+		} else if (Types.isUserDefinedValueType(clazz) || Types.isCoreValueType(clazz)) {
+			values.add(clazz);
+			return;
+		}
+		
+		if (parsed.add(clazz)) {
+			for (Field field : clazz.getDeclaredFields()) {
+				parse(field.getType(), values, parsed);
+			}
+		}
+	}
+	
+	private String write(Object object) throws Exception {
+		StringBuilder builder = new StringBuilder();
+		JSONWriter.of(object.getClass()).write(object, JSONResponse.output(object.getClass(), builder));
+		return builder.toString();
+	}
+	
+}
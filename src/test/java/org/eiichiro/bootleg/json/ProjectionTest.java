@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.eiichiro.bootleg.annotation.Body;
+import org.eiichiro.bootleg.annotation.Query;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class ProjectionTest {
+
+	public static class Node {
+		
+		String name;
+		
+		List<Node> children;
+		
+	}
+	
+	public static class Endpoint {
+		
+		public void named(@Body("a") int a, @Body("nodes") List<Node> nodes) {}
+		
+		public void unnamed(@Body Node node) {}
+		
+		public void collection(@Body List<Node> nodes) {}
+		
+		public void object(@Body("a") Object a) {}
+		
+		public void none(@Query("a") int a) {}
+		
+	}
+	
+	@Test
+	public void testRead() throws Exception {
+		String json = "{\"a\": 1, \"b\": {\"c\": [1, 2]}, \"name\": \"n\", " 
+				+ "\"nodes\": [{\"name\": \"x\", \"value\": 0, \"children\": [{\"name\": \"y\", \"value\": 1}]}]}";
+		assertThat(read("named", json).toString(), 
+				is("{\"a\":1,\"nodes\":[{\"name\":\"x\",\"children\":[{\"name\":\"y\"}]}]}"));
+		assertThat(read("unnamed", json).toString(), is("{\"name\":\"n\"}"));
+		assertThat(read("collection", "[{\"name\": \"x\", \"value\": 0}, 1]").toString(), 
+				is("[{\"name\":\"x\"},1]"));
+		assertThat(read("object", "{\"a\": {\"b\": [1, {}]}, \"b\": 2}").toString(), 
+				is("{\"a\":{\"b\":[1,{}]}}"));
+		assertNull(read("none", json));
+		assertTrue(read("named", "").isJsonNull());
+		assertThat(Projection.of(null), is(Projection.ALL));
+		assertThat(Projection.of(method("collection")).collection(), 
+				is(method("collection").getGenericParameterTypes()[0]));
+		assertNull(Projection.of(method("named")).collection());
+		assertNull(Projection.of(method("unnamed")).collection());
+		
+		try {
+			read("named", "{\"a\": 1} {");
+			fail();
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	private static JsonElement read(String method, String json) throws Exception {
+		return Projection.of(method(method)).read(new StringReader(json));
+	}
+	
+	private static Method method(String name) {
+		for (Method method : Endpoint.class.getMethods()) {
+			if (method.getName().equals(name)) {
+				return method;
+			}
+		}
+		
+		throw new IllegalArgumentException(name);
+	}
+	
+}
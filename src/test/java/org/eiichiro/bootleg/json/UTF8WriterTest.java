@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2011-2013 Eiichiro Uchiumi. All Rights Reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *     
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eiichiro.bootleg.json;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:mail@eiichiro.org">Eiichiro Uchiumi</a>
+ */
+public class UTF8WriterTest {
+
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	
+	private int length = -1;
+	
+	@Test
+	public void testWrite() throws Exception {
+		String string = "{\"a\": \"\u00e9\u3042\ud83d\ude00\"}";
+		UTF8Writer writer = new UTF8Writer(response());
+		writer.write(string.substring(0, 10));
+		writer.write(string.toCharArray(), 10, string.length() - 10);
+		writer.flush();
+		assertThat(bytes.size(), is(0));
+		writer.close();
+		assertThat(bytes.toByteArray(), is(string.getBytes("UTF-8")));
+		assertThat(length, is(bytes.size()));
+		writer.close();
+		
+		try {
+			writer.write('a');
+			fail();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	@Test
+	public void testWriteLarge() throws Exception {
+		char[] chars = new char[UTF8Writer.SIZE];
+		Arrays.fill(chars, '\u3042');
+		String string = new String(chars);
+		UTF8Writer writer = new UTF8Writer(response());
+		writer.write(string);
+		writer.write('\ud83d');
+		writer.write('a');
+		writer.write('\udc00');
+		writer.close();
+		assertThat(bytes.toByteArray(), is((string + "?a?").getBytes("UTF-8")));
+		assertThat(length, is(-1));
+	}
+	
+	@Test
+	public void testWriteBytes() throws Exception {
+		byte[] large = new byte[UTF8Writer.SIZE + 1];
+		Arrays.fill(large, (byte) 'a');
+		UTF8Writer writer = new UTF8Writer(response());
+		writer.write('[');
+		writer.write("\"\u3042\":".getBytes("UTF-8"));
+		writer.write(large);
+		writer.write(']');
+		writer.close();
+		assertThat(bytes.toByteArray(), is(("[\"\u3042\":" + new String(large, "UTF-8") + "]").getBytes("UTF-8")));
+		assertThat(length, is(-1));
+	}
+	
+	private HttpServletResponse response() {
+		final ServletOutputStream stream = new ServletOutputStream() {
+			
+			@Override
+			public void write(int b) throws IOException {
+				bytes.write(b);
+			}
+			
+		};
+		return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), 
+				new Class<?>[] {HttpServletResponse.class}, new InvocationHandler() {
+			
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("getOutputStream")) {
+					return stream;
+				} else if (method.getName().equals("setContentLength")) {
+					length = (Integer) args[0];
+					return null;
+				}
+				
+				throw new UnsupportedOperationException(method.getName());
+			}
+			
+		});
+	}
+	
+}